@@ -2,10 +2,14 @@ package app;
 
 import app.menus.MenuClientes;
 import app.menus.MenuEmpleados;
+import app.menus.MenuImportacion;
 import app.menus.MenuReportes;
 import app.menus.MenuServicios;
 import app.menus.MenuTurnos;
 import java.util.Scanner;
+import repo.Auditoria;
+import repo.EstadisticasPersistencia;
+import repo.JournalCambios;
 import repo.PersistenciaArchivo;
 import services.ClienteService;
 import services.EmpleadoService;
@@ -23,6 +27,11 @@ public class Main {
         EmpleadoService empleadoService = new EmpleadoService();
         TurnoService turnoService = new TurnoService();
 
+        // las bajas consultan los turnos de cada cliente, servicio o empleado
+        clienteService.setTurnoService(turnoService);
+        servicioService.setTurnoService(turnoService);
+        empleadoService.setTurnoService(turnoService);
+
         PersistenciaArchivo.cargarTodo(
                 clienteService,
                 servicioService,
@@ -30,12 +39,29 @@ public class Main {
                 turnoService
         );
 
+        // A partir de acá cada cambio se agrega al journal en vez de reescribir todo
+        JournalCambios journal = JournalCambios.abrir(
+                clienteService,
+                servicioService,
+                empleadoService,
+                turnoService
+        );
+
+        // Después del journal: lo reaplicado al iniciar ya quedó auditado cuando pasó
+        Auditoria auditoria = Auditoria.abrir(
+                clienteService,
+                servicioService,
+                empleadoService,
+                turnoService
+        );
+
         // Crear menús
-        MenuClientes menuClientes = new MenuClientes(sc, clienteService);
+        MenuClientes menuClientes = new MenuClientes(sc, clienteService, auditoria);
         MenuServicios menuServicios = new MenuServicios(sc, servicioService);
         MenuEmpleados menuEmpleados = new MenuEmpleados(sc, empleadoService);
         MenuTurnos menuTurnos = new MenuTurnos(sc, clienteService, servicioService, empleadoService, turnoService);
-        MenuReportes menuReportes = new MenuReportes(sc, turnoService);
+        MenuReportes menuReportes = new MenuReportes(sc, turnoService, auditoria);
+        MenuImportacion menuImportacion = new MenuImportacion(sc, clienteService, servicioService, empleadoService, turnoService);
 
         int opcion;
         do {
@@ -48,19 +74,19 @@ public class Main {
                 case 3 -> menuEmpleados.mostrar();
                 case 4 -> menuTurnos.mostrar();
                 case 5 -> menuReportes.mostrar();
+                case 6 -> menuImportacion.mostrar();
                 case 0 -> System.out.println("Saliendo...");
                 default -> System.out.println("Opción inválida.");
             }
 
-            PersistenciaArchivo.guardarTodo(
-                    clienteService,
-                    servicioService,
-                    empleadoService,
-                    turnoService
-            );
+            journal.compactarSiCorresponde();
 
         } while (opcion != 0);
 
+        journal.cerrar();
+        auditoria.cerrar();
+        System.out.println(EstadisticasPersistencia.resumen());
+
         sc.close();
     }
 
@@ -71,6 +97,7 @@ public class Main {
         System.out.println("3. Gestión de empleados");
         System.out.println("4. Gestión de turnos");
         System.out.println("5. Reportes");
+        System.out.println("6. Importar datos (CSV)");
         System.out.println("0. Salir");
     }
 
@@ -3,16 +3,22 @@ package app.menus;
 import java.util.List;
 import java.util.Scanner;
 import model.Cliente;
+import repo.Auditoria;
 import services.ClienteService;
 
 public class MenuClientes {
 
     private final Scanner sc;
     private final ClienteService clienteService;
+    private final Auditoria auditoria;
 
-    public MenuClientes(Scanner sc, ClienteService clienteService) {
+    // Cambios que muestra "Mostrar historial de acciones"
+    private static final int CAMBIOS_HISTORIAL = 10;
+
+    public MenuClientes(Scanner sc, ClienteService clienteService, Auditoria auditoria) {
         this.sc = sc;
         this.clienteService = clienteService;
+        this.auditoria = auditoria;
     }
 
     public void mostrar() {
@@ -26,6 +32,7 @@ public class MenuClientes {
             System.out.println("5. Eliminar cliente");
             System.out.println("6. Listar todos los clientes");
             System.out.println("7. Mostrar historial de acciones");
+            System.out.println("8. Buscar cliente por teléfono");
             System.out.println("0. Volver");
             op = leerInt("Opción: ");
 
@@ -37,7 +44,8 @@ public class MenuClientes {
                     case 4 -> modificar();
                     case 5 -> eliminar();
                     case 6 -> listar();
-                    case 7 -> clienteService.mostrarHistorial();
+                    case 7 -> mostrarHistorial();
+                    case 8 -> buscarPorTelefono();
                     case 0 -> {}
                     default -> System.out.println("Opción inválida.");
                 }
@@ -99,6 +107,14 @@ public class MenuClientes {
         else lista.forEach(System.out::println);
     }
 
+    private void buscarPorTelefono() {
+        String telefono = leerString("Teléfono: ");
+        List<Cliente> lista = clienteService.buscarPorTelefono(telefono);
+
+        if (lista.isEmpty()) System.out.println("No se encontraron clientes.");
+        else lista.forEach(System.out::println);
+    }
+
     private void modificar() {
         String dni = leerString("DNI del cliente a modificar: ");
         String nuevoNombre = leerString("Nuevo nombre (enter = mantener): ");
@@ -125,6 +141,11 @@ public class MenuClientes {
         clienteService.listarClientes().forEach(System.out::println);
     }
 
+    private void mostrarHistorial() {
+        System.out.println("\n--- Historial de acciones (clientes) ---");
+        auditoria.ultimos("cliente", CAMBIOS_HISTORIAL).forEach(e -> System.out.println("- " + e));
+    }
+
     private String leerString(String txt) {
         System.out.print(txt);
         return sc.nextLine().trim();
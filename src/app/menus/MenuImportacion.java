@@ -0,0 +1,86 @@
+package app.menus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+import repo.ImportadorCsv;
+import services.ClienteService;
+import services.EmpleadoService;
+import services.ServicioService;
+import services.TurnoService;
+
+public class MenuImportacion {
+
+    private final Scanner sc;
+    private final ClienteService clienteService;
+    private final ServicioService servicioService;
+    private final EmpleadoService empleadoService;
+    private final TurnoService turnoService;
+
+    public MenuImportacion(
+            Scanner sc,
+            ClienteService clienteService,
+            ServicioService servicioService,
+            EmpleadoService empleadoService,
+            TurnoService turnoService
+    ) {
+        this.sc = sc;
+        this.clienteService = clienteService;
+        this.servicioService = servicioService;
+        this.empleadoService = empleadoService;
+        this.turnoService = turnoService;
+    }
+
+    public void mostrar() {
+        int op;
+        do {
+            System.out.println("\n--- Importar datos (CSV) ---");
+            System.out.println("1. Importar clientes (nombre, apellido, dni, telefono)");
+            System.out.println("2. Importar servicios (nombre, precioBase, duracionMinutos)");
+            System.out.println("3. Importar turnos (clienteDni, empleadoId, servicioId, fechaHora, estado)");
+            System.out.println("0. Volver");
+            op = leerInt("Opción: ");
+
+            if (op < 0 || op > 3) {
+                System.out.println("Opción inválida.");
+                continue;
+            }
+            if (op == 0) continue;
+
+            Path csv = Path.of(leerString("Ruta del archivo CSV: "));
+            if (!Files.isRegularFile(csv)) {
+                System.out.println("No existe el archivo " + csv);
+                continue;
+            }
+
+            try {
+                ImportadorCsv.Resultado r = switch (op) {
+                    case 1 -> ImportadorCsv.importarClientes(csv, clienteService);
+                    case 2 -> ImportadorCsv.importarServicios(csv, servicioService);
+                    default -> ImportadorCsv.importarTurnos(csv, turnoService,
+                            clienteService, servicioService, empleadoService);
+                };
+                System.out.println(r);
+            } catch (IOException ex) {
+                System.out.println("Error: " + ex.getMessage());
+            }
+        } while (op != 0);
+    }
+
+    private String leerString(String txt) {
+        System.out.print(txt);
+        return sc.nextLine().trim();
+    }
+
+    private int leerInt(String txt) {
+        while (true) {
+            System.out.print(txt);
+            try {
+                return Integer.parseInt(sc.nextLine().trim());
+            } catch (NumberFormatException e) {
+                System.out.println("Número inválido.");
+            }
+        }
+    }
+}
@@ -1,19 +1,39 @@
 package app.menus;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Scanner;
+import model.Cliente;
+import model.Empleado;
+import model.Servicio;
 import model.Turno;
+import repo.Auditoria;
+import repo.EventoAuditoria;
+import services.ColumnasTurnos;
+import services.ReporteDiario;
 import services.TurnoService;
 
 public class MenuReportes {
 
+    // Los turnos se guardan en minutos desde 1970 (ver ColumnasTurnos): años razonables
+    private static final int ANIO_MINIMO = 1900;
+    private static final int ANIO_MAXIMO = 2100;
+
     private final Scanner sc;
     private final TurnoService turnoService;
+    private final Auditoria auditoria;
 
-    public MenuReportes(Scanner sc, TurnoService turnoService) {
+    public MenuReportes(Scanner sc, TurnoService turnoService, Auditoria auditoria) {
         this.sc = sc;
         this.turnoService = turnoService;
+        this.auditoria = auditoria;
     }
 
     public void mostrar() {
@@ -27,20 +47,32 @@ public class MenuReportes {
             System.out.println("5. Ingresos por servicio (hoy)");
             System.out.println("6. Horas trabajadas por empleado (hoy)");
             System.out.println("7. Ranking de servicios más vendidos (hoy)");
+            System.out.println("8. Resumen completo del día");
+            System.out.println("9. Ingresos por período");
+            System.out.println("10. Análisis anual");
+            System.out.println("11. Auditoría de cambios");
             System.out.println("0. Volver");
             op = leerInt("Opción: ");
 
-            switch (op) {
-                case 1 -> mostrarIngresosDelDia();
-                case 2 -> mostrarTurnosPendientes();
-                case 3 -> mostrarTurnosRealizadosHoy();
-                case 4 -> mostrarIngresosPorEmpleadoHoy();
-                case 5 -> mostrarIngresosPorServicioHoy();
-                case 6 -> mostrarHorasTrabajadasPorEmpleadoHoy();
-                case 7 -> mostrarRankingServiciosHoy();
-                case 0 -> {
+            try {
+                switch (op) {
+                    case 1 -> mostrarIngresosDelDia();
+                    case 2 -> mostrarTurnosPendientes();
+                    case 3 -> mostrarTurnosRealizadosHoy();
+                    case 4 -> mostrarIngresosPorEmpleadoHoy();
+                    case 5 -> mostrarIngresosPorServicioHoy();
+                    case 6 -> mostrarHorasTrabajadasPorEmpleadoHoy();
+                    case 7 -> mostrarRankingServiciosHoy();
+                    case 8 -> mostrarResumenDelDia();
+                    case 9 -> mostrarIngresosPorPeriodo();
+                    case 10 -> mostrarAnalisisAnual();
+                    case 11 -> mostrarAuditoria();
+                    case 0 -> {
+                    }
+                    default -> System.out.println("Opción inválida.");
                 }
-                default -> System.out.println("Opción inválida.");
+            } catch (Exception ex) {
+                System.out.println("Error: " + ex.getMessage());
             }
 
         } while (op != 0);
@@ -49,7 +81,7 @@ public class MenuReportes {
     //Opción 1
 
     private void mostrarIngresosDelDia() {
-        double total = turnoService.calcularIngresosDiarios();
+        double total = turnoService.reporteDiario(LocalDate.now()).getIngresos();
         System.out.printf("Ingresos del día: $%.2f%n", total);
     }
 
@@ -75,72 +107,199 @@ public class MenuReportes {
     //Opción 4
 
     private void mostrarIngresosPorEmpleadoHoy() {
-        LocalDate hoy = LocalDate.now();
-        Map<String, Double> mapa = turnoService.ingresosPorEmpleado(hoy);
+        ReporteDiario r = reporteDeHoy();
+        if (r == null) return;
 
-        if (mapa.isEmpty()) {
-            System.out.println("No hay turnos realizados hoy.");
-            return;
-        }
-
-        System.out.println("\nIngresos por empleado (hoy " + hoy + "):");
-        mapa.forEach((empleado, total) ->
-                System.out.printf(" - %s: $%.2f%n", empleado, total)
+        System.out.println("\nIngresos por empleado (hoy " + r.getFecha() + "):");
+        r.getIngresosPorEmpleado().forEach((empleado, total) ->
+                System.out.printf(" - %s: $%.2f%n", nombre(empleado), total)
         );
     }
 
     //Opción 5
 
     private void mostrarIngresosPorServicioHoy() {
-        LocalDate hoy = LocalDate.now();
-        Map<String, Double> mapa = turnoService.ingresosPorServicio(hoy);
+        ReporteDiario r = reporteDeHoy();
+        if (r == null) return;
 
-        if (mapa.isEmpty()) {
-            System.out.println("No hay turnos realizados hoy.");
-            return;
-        }
-
-        System.out.println("\nIngresos por servicio (hoy " + hoy + "):");
-        mapa.forEach((servicio, total) ->
-                System.out.printf(" - %s: $%.2f%n", servicio, total)
+        System.out.println("\nIngresos por servicio (hoy " + r.getFecha() + "):");
+        r.getIngresosPorServicio().forEach((servicio, total) ->
+                System.out.printf(" - %s: $%.2f%n", servicio.getNombre(), total)
         );
     }
 
     //Opción 6
 
     private void mostrarHorasTrabajadasPorEmpleadoHoy() {
-        LocalDate hoy = LocalDate.now();
-        Map<String, Integer> mapa = turnoService.minutosTrabajadosPorEmpleado(hoy);
-
-        if (mapa.isEmpty()) {
-            System.out.println("No hay turnos realizados hoy.");
-            return;
-        }
+        ReporteDiario r = reporteDeHoy();
+        if (r == null) return;
 
-        System.out.println("\nHoras trabajadas por empleado (hoy " + hoy + "):");
-        mapa.forEach((empleado, minutos) -> {
+        System.out.println("\nHoras trabajadas por empleado (hoy " + r.getFecha() + "):");
+        r.getMinutosPorEmpleado().forEach((empleado, minutos) -> {
             double horas = minutos / 60.0;
-            System.out.printf(" - %s: %.2f hs (%d min)%n", empleado, horas, minutos);
+            System.out.printf(" - %s: %.2f hs (%d min)%n", nombre(empleado), horas, minutos);
         });
     }
 
     //Opción 7
 
     private void mostrarRankingServiciosHoy() {
-        LocalDate hoy = LocalDate.now();
-        Map<String, Long> ranking = turnoService.rankingServicios(hoy);
+        ReporteDiario r = reporteDeHoy();
+        if (r == null) return;
 
-        if (ranking.isEmpty()) {
-            System.out.println("No hay turnos realizados hoy.");
+        System.out.println("\nRanking de servicios más vendidos (hoy " + r.getFecha() + "):");
+        for (Servicio servicio : r.getRankingServicios()) {
+            System.out.printf(" - %s: %d turno(s)%n",
+                    servicio.getNombre(), r.getCantidadPorServicio().get(servicio));
+        }
+    }
+
+    //Opción 8: todo junto, con un solo reporte
+
+    private void mostrarResumenDelDia() {
+        ReporteDiario r = reporteDeHoy();
+        if (r == null) return;
+
+        System.out.println("\nResumen del día " + r.getFecha());
+        System.out.printf("Turnos realizados: %d | Ingresos: $%.2f%n", r.getTurnosRealizados(), r.getIngresos());
+
+        System.out.println("\nPor empleado:");
+        r.getIngresosPorEmpleado().forEach((empleado, total) -> {
+            int minutos = r.getMinutosPorEmpleado().get(empleado);
+            System.out.printf(" - %s: $%.2f | %.2f hs%n", nombre(empleado), total, minutos / 60.0);
+        });
+
+        System.out.println("\nPor servicio (más vendidos primero):");
+        for (Servicio servicio : r.getRankingServicios()) {
+            System.out.printf(" - %s: %d turno(s) | $%.2f%n", servicio.getNombre(),
+                    r.getCantidadPorServicio().get(servicio), r.getIngresosPorServicio().get(servicio));
+        }
+    }
+
+    //Opción 9
+
+    private void mostrarIngresosPorPeriodo() {
+        LocalDate desde = leerFecha("Desde (dd/MM/yyyy): ");
+        LocalDate hasta = leerFecha("Hasta (dd/MM/yyyy): ");
+        if (hasta.isBefore(desde)) {
+            System.out.println("La fecha final es anterior a la inicial.");
             return;
         }
 
-        System.out.println("\nRanking de servicios más vendidos (hoy " + hoy + "):");
-        ranking.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .forEach(e ->
-                        System.out.printf(" - %s: %d turno(s)%n", e.getKey(), e.getValue())
-                );
+        double total = turnoService.calcularIngresos(desde, hasta);
+        System.out.printf("%nIngresos del %s al %s: $%.2f%n", desde, hasta, total);
+        if (total == 0) return;
+
+        System.out.println("\nPor empleado:");
+        Map<Empleado, Double> porEmpleado = turnoService.ingresosPorEmpleado(desde, hasta);
+        porEmpleado.forEach((empleado, importe) ->
+                System.out.printf(" - %s: $%.2f%n", nombre(empleado), importe)
+        );
+
+        System.out.println("\nPor servicio:");
+        Map<Servicio, Double> porServicio = turnoService.ingresosPorServicio(desde, hasta);
+        porServicio.forEach((servicio, importe) ->
+                System.out.printf(" - %s: $%.2f%n", servicio.getNombre(), importe)
+        );
+    }
+
+    //Opción 10: recorre todo el año sobre las columnas de turnos
+
+    private void mostrarAnalisisAnual() {
+        int anio = leerInt("Año: ");
+        if (anio < ANIO_MINIMO || anio > ANIO_MAXIMO) {
+            System.out.println("Año inválido: debe estar entre " + ANIO_MINIMO + " y " + ANIO_MAXIMO + ".");
+            return;
+        }
+        LocalDate desde = LocalDate.of(anio, 1, 1);
+        LocalDate hasta = LocalDate.of(anio, 12, 31);
+        ColumnasTurnos columnas = turnoService.columnas(desde, hasta);
+
+        int realizados = columnas.contar(desde, hasta, Turno.Estado.REALIZADO);
+        if (realizados == 0) {
+            System.out.println("No hay turnos realizados en " + anio + ".");
+            return;
+        }
+        System.out.printf("%nAño %d: %d turno(s) realizado(s), %d cancelado(s)%n", anio, realizados,
+                columnas.contar(desde, hasta, Turno.Estado.CANCELADO));
+
+        System.out.println("\nIngresos por mes:");
+        double[] porMes = columnas.ingresosPorMes(anio);
+        for (int mes = 0; mes < 12; mes++) {
+            String nombreMes = Month.of(mes + 1).getDisplayName(TextStyle.FULL, new Locale("es"));
+            System.out.printf(" - %-10s $%.2f%n", nombreMes, porMes[mes]);
+        }
+
+        System.out.println("\nTurnos realizados por hora:");
+        int[] porHora = columnas.cantidadPorHora(desde, hasta, Turno.Estado.REALIZADO);
+        for (int hora = 0; hora < 24; hora++) {
+            if (porHora[hora] > 0) System.out.printf(" - %02d hs: %d%n", hora, porHora[hora]);
+        }
+
+        System.out.println("\nHoras trabajadas por empleado:");
+        columnas.minutosPorEmpleado(desde, hasta).forEach((empleado, minutos) ->
+                System.out.printf(" - %s: %.2f hs%n", nombre(empleado), minutos / 60.0)
+        );
+
+        System.out.println("\nClientes más frecuentes:");
+        Map<Cliente, Integer> porCliente = columnas.cantidadPorCliente(desde, hasta, Turno.Estado.REALIZADO);
+        List<Cliente> frecuentes = porCliente.keySet().stream()
+                .sorted((a, b) -> Integer.compare(porCliente.get(b), porCliente.get(a)))
+                .limit(5)
+                .toList();
+        for (Cliente c : frecuentes) {
+            System.out.printf(" - %s %s (DNI %s): %d turno(s)%n",
+                    c.getNombre(), c.getApellido(), c.getDni(), porCliente.get(c));
+        }
+    }
+
+    //Opción 11: cambios de data/auditoria.log
+
+    private void mostrarAuditoria() {
+        System.out.print("Entidad (cliente/servicio/empleado/turno, Enter = todas): ");
+        String entidad = sc.nextLine().trim();
+        System.out.print("DNI o ID (Enter = todos): ");
+        String id = sc.nextLine().trim();
+        LocalDate desde = leerFecha("Desde (dd/MM/yyyy): ");
+        LocalDate hasta = leerFecha("Hasta (dd/MM/yyyy): ");
+
+        List<EventoAuditoria> eventos = auditoria.consultar(
+                entidad.isEmpty() ? null : entidad,
+                id.isEmpty() ? null : id,
+                desde.atStartOfDay(),
+                hasta.atTime(LocalTime.MAX)
+        );
+        if (eventos.isEmpty()) {
+            System.out.println("No hay cambios registrados en ese período.");
+            return;
+        }
+        eventos.forEach(System.out::println);
+        System.out.println(eventos.size() + " cambio(s).");
+    }
+
+    // null (con aviso) si hoy no hubo turnos realizados
+    private ReporteDiario reporteDeHoy() {
+        ReporteDiario r = turnoService.reporteDiario(LocalDate.now());
+        if (r.estaVacio()) {
+            System.out.println("No hay turnos realizados hoy.");
+            return null;
+        }
+        return r;
+    }
+
+    private String nombre(Empleado empleado) {
+        return empleado.getId() + " - " + empleado.getNombre();
+    }
+
+    private LocalDate leerFecha(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            try {
+                return LocalDate.parse(sc.nextLine().trim(), DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+            } catch (DateTimeParseException ex) {
+                System.out.println("Formato inválido.");
+            }
+        }
     }
 
     //Helper lectura int
@@ -10,8 +10,11 @@ import java.util.stream.IntStream;
 import model.Cliente;
 import model.Empleado;
 import model.Servicio;
+import model.Turno;
 import services.ClienteService;
 import services.EmpleadoService;
+import services.FichaCliente;
+import services.HuecoLibre;
 import services.ServicioService;
 import services.TurnoService;
 
@@ -23,6 +26,9 @@ public class MenuTurnos {
     private final EmpleadoService empleadoService;
     private final TurnoService turnoService;
 
+    // Coincidencias por nombre que se ofrecen para elegir (las mejores)
+    private static final int MAX_COINCIDENCIAS = 20;
+
     private final DateTimeFormatter FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     public MenuTurnos(
@@ -49,6 +55,8 @@ public class MenuTurnos {
             System.out.println("4. Listar turnos por día");
             System.out.println("5. Listar turnos por empleado");
             System.out.println("6. Listar todos los turnos");
+            System.out.println("7. Buscar próximos horarios libres");
+            System.out.println("8. Ficha de cliente");
             System.out.println("0. Volver");
 
             op = leerInt("Opción: ");
@@ -61,6 +69,8 @@ public class MenuTurnos {
                     case 4 -> listarPorDia();
                     case 5 -> listarPorEmpleado();
                     case 6 -> listarTodos();
+                    case 7 -> buscarHuecos();
+                    case 8 -> fichaCliente();
                     case 0 -> {}
                     default -> System.out.println("Opción inválida.");
                 }
@@ -75,7 +85,7 @@ public class MenuTurnos {
         try {
             System.out.println("\n-- Crear Turno --");
 
-            String q = leerString("Buscar cliente por DNI o nombre: ");
+            String q = leerString("Buscar cliente por DNI, teléfono o nombre: ");
             Cliente cliente = buscarCliente(q);
             if (cliente == null) {
                 System.out.println("No se encontró cliente.");
@@ -113,10 +123,9 @@ public class MenuTurnos {
                 return;
             }
 
-            String id = turnoService.generarIdTurno();
-            turnoService.registrarTurno(id, cliente, empleado, servicio, fechaHora);
+            Turno turno = turnoService.registrarTurno(cliente, empleado, servicio, fechaHora);
 
-            System.out.println("Turno creado: " + id);
+            System.out.println("Turno creado: " + turno.getId());
 
         } catch (exceptions.TurnoNoDisponibleException ex) {
             System.out.println(" " + ex.getMessage());
@@ -125,15 +134,62 @@ public class MenuTurnos {
         }
     }
 
+    private void buscarHuecos() {
+        System.out.println("\n-- Próximos horarios libres --");
+
+        List<Servicio> servicios = servicioService.listarServicios();
+        System.out.println("Seleccione servicio:");
+        IntStream.range(0, servicios.size())
+                .forEach(i -> System.out.println((i + 1) + ". " + servicios.get(i)));
+        int opServ = leerInt("Opción: ");
+        if (opServ < 1 || opServ > servicios.size()) {
+            System.out.println("Opción de servicio inválida.");
+            return;
+        }
+        Servicio servicio = servicios.get(opServ - 1);
+
+        String tipo = leerString("Tipo de empleado (Barbero/Estilista, Enter = cualquiera): ");
+        int dias = leerInt("Buscar en los próximos días: ");
+        int cantidad = leerInt("Cantidad de horarios: ");
+
+        LocalDateTime desde = LocalDateTime.now();
+        List<HuecoLibre> huecos = turnoService.proximosHuecos(
+                empleadoService.listarEmpleados(), servicio, desde, desde.plusDays(dias), tipo, cantidad);
+
+        if (huecos.isEmpty()) {
+            System.out.println("No hay horarios libres en ese período.");
+            return;
+        }
+        IntStream.range(0, huecos.size())
+                .forEach(i -> System.out.println((i + 1) + ". " + huecos.get(i)));
+
+        int opHueco = leerInt("Reservar horario (0 = no): ");
+        if (opHueco < 1 || opHueco > huecos.size()) return;
+        HuecoLibre hueco = huecos.get(opHueco - 1);
+
+        Cliente cliente = buscarCliente(leerString("Buscar cliente por DNI, teléfono o nombre: "));
+        if (cliente == null) {
+            System.out.println("No se encontró cliente.");
+            return;
+        }
+
+        Turno turno = turnoService.registrarTurno(cliente, hueco.getEmpleado(), servicio, hueco.getInicio());
+        System.out.println("Turno creado: " + turno.getId());
+    }
+
     private Cliente buscarCliente(String q) {
-        if (q.matches("\\d+")) {
-            try {
-                return clienteService.buscarPorDni(q);
-            } catch (ElementoNoEncontradoException ignored) {}
+        if (q.matches("[\\d\\s+()-]+")) {
+            if (clienteService.existeCliente(q)) return clienteService.buscarPorDni(q);
+
+            // si no es un DNI puede ser el teléfono de quien llama para reservar
+            List<Cliente> porTelefono = clienteService.buscarPorTelefono(q);
+            if (!porTelefono.isEmpty()) return elegirCliente(porTelefono);
         }
 
-        List<Cliente> lista = clienteService.buscarPorNombre(q);
+        return elegirCliente(clienteService.buscarPorNombre(q, MAX_COINCIDENCIAS));
+    }
 
+    private Cliente elegirCliente(List<Cliente> lista) {
         if (lista.isEmpty()) return null;
         if (lista.size() == 1) return lista.get(0);
 
@@ -144,6 +200,36 @@ public class MenuTurnos {
         return lista.get(leerInt("Opción: ") - 1);
     }
 
+    private void fichaCliente() {
+        String q = leerString("Buscar cliente por DNI, teléfono o nombre: ");
+        Cliente cliente = buscarCliente(q);
+        if (cliente == null) {
+            System.out.println("No se encontró cliente.");
+            return;
+        }
+
+        FichaCliente ficha = turnoService.fichaCliente(cliente);
+        System.out.println("\n-- Ficha de " + cliente.getNombre() + " " + cliente.getApellido() + " --");
+        System.out.println(cliente);
+        System.out.println("Visitas: " + ficha.getVisitas());
+        System.out.printf("Gasto total: $%.2f%n", ficha.getGastoTotal());
+        if (ficha.getUltimaVisita() != null) {
+            System.out.println("Última visita: " + ficha.getUltimaVisita().format(FECHA_HORA));
+            System.out.println("Servicio más frecuente: " + ficha.getServicioFrecuente().getNombre());
+            System.out.println("Empleado más frecuente: " + ficha.getEmpleadoFrecuente().getNombre());
+        }
+        Turno proximo = ficha.getProximoTurno();
+        System.out.println("Próximo turno: " + (proximo == null ? "-" : proximo.getFechaHora().format(FECHA_HORA)
+                + " " + proximo.getServicio().getNombre() + " con " + proximo.getEmpleado().getNombre()));
+
+        if (ficha.getTurnos().isEmpty()) {
+            System.out.println("No tiene turnos.");
+        } else {
+            System.out.println("Historial:");
+            ficha.getTurnos().forEach(System.out::println);
+        }
+    }
+
     private void cancelar() {
         String id = leerString("ID turno: ");
         System.out.println(turnoService.cancelarTurno(id) ? "Cancelado." : "No existe.");
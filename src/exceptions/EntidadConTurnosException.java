@@ -0,0 +1,12 @@
+/**
+ * Excepción lanzada al intentar eliminar un cliente, servicio o empleado
+ * que todavía tiene turnos.
+ */
+
+package exceptions;
+
+public class EntidadConTurnosException extends RuntimeException {
+    public EntidadConTurnosException(String mensaje) {
+        super(mensaje);
+    }
+}
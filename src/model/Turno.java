@@ -23,7 +23,7 @@ public class Turno {
     private Empleado empleado;
     private Servicio servicio;
     private LocalDateTime fechaHora;
-    private Estado estado;
+    private volatile Estado estado;   // se cancela o finaliza desde cualquier terminal
 
     public Turno(String id, Cliente cliente, Empleado empleado, Servicio servicio, LocalDateTime fechaHora) {
         this.id = id;
@@ -34,6 +34,13 @@ public class Turno {
         this.estado = Estado.PENDIENTE;
     }
 
+    // Para rearmar un turno ya guardado, con el estado que tenía
+    public Turno(String id, Cliente cliente, Empleado empleado, Servicio servicio,
+                 LocalDateTime fechaHora, Estado estado) {
+        this(id, cliente, empleado, servicio, fechaHora);
+        this.estado = estado;
+    }
+
     public String getId() { return id; }
     public Cliente getCliente() { return cliente; }
     public Empleado getEmpleado() { return empleado; }
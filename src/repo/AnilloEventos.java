@@ -0,0 +1,111 @@
+package repo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Buffer circular de eventos de auditoría, reservado de entrada, que varios
+ * hilos llenan sin candados y un solo lector vacía.
+ *
+ * <p>Los eventos se guardan en arreglos paralelos (como {@code ColumnasTurnos}):
+ * registrar uno no crea objetos ni arma textos. Cada evento tiene un número;
+ * el que publica reserva el próximo con un compareAndSet, llena su posición y
+ * recién ahí escribe el número en {@code publicado}, que es lo que mira el
+ * lector antes de leerla.</p>
+ *
+ * <p>Si el buffer está lleno (el lector no da abasto) el evento se descarta y
+ * se cuenta: quien registra nunca espera.</p>
+ */
+class AnilloEventos {
+
+    /** Recibe los eventos que se van vaciando, en orden. */
+    interface Lector {
+        void evento(long momento, byte entidad, byte accion, String id, String detalle);
+    }
+
+    private final int capacidad;
+    private final int mascara;
+    private final long[] momento;
+    private final byte[] entidad;
+    private final byte[] accion;
+    private final String[] id;
+    private final String[] detalle;
+    private final AtomicLongArray publicado;   // número del evento que hay en cada posición
+
+    private final AtomicLong proximo = new AtomicLong();   // número del próximo evento a reservar
+    private volatile long leidos;                          // lo escribe sólo el lector
+    private final AtomicLong descartados = new AtomicLong();
+
+    AnilloEventos(int capacidad) {
+        if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de 2.");
+        }
+        this.capacidad = capacidad;
+        this.mascara = capacidad - 1;
+        this.momento = new long[capacidad];
+        this.entidad = new byte[capacidad];
+        this.accion = new byte[capacidad];
+        this.id = new String[capacidad];
+        this.detalle = new String[capacidad];
+        this.publicado = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) {
+            publicado.set(i, -1);
+        }
+    }
+
+    // false si estaba lleno y el evento se descartó
+    boolean publicar(long momento, byte entidad, byte accion, String id, String detalle) {
+        long n;
+        do {
+            n = proximo.get();
+            if (n - leidos >= capacidad) {
+                descartados.incrementAndGet();
+                return false;
+            }
+        } while (!proximo.compareAndSet(n, n + 1));
+
+        int i = (int) n & mascara;
+        this.momento[i] = momento;
+        this.entidad[i] = entidad;
+        this.accion[i] = accion;
+        this.id[i] = id;
+        this.detalle[i] = detalle;
+        publicado.set(i, n);   // escritura volatile: el lector ve los campos de arriba
+        return true;
+    }
+
+    /**
+     * Pasa al lector hasta {@code maximo} eventos publicados, en orden, y
+     * libera sus posiciones. Un solo hilo a la vez. Devuelve cuántos pasó.
+     */
+    int vaciar(Lector lector, int maximo) {
+        long n = leidos;
+        int pasados = 0;
+        while (pasados < maximo) {
+            int i = (int) n & mascara;
+            if (publicado.get(i) != n) break;   // todavía no se terminó de escribir
+
+            lector.evento(momento[i], entidad[i], accion[i], id[i], detalle[i]);
+            id[i] = null;
+            detalle[i] = null;
+            n++;
+            pasados++;
+            leidos = n;
+        }
+        return pasados;
+    }
+
+    boolean estaVacio() {
+        return proximo.get() == leidos;
+    }
+
+    // Más de la mitad ocupada: conviene despertar al lector
+    boolean estaPorLlenarse() {
+        return proximo.get() - leidos > capacidad / 2;
+    }
+
+    // Descartados desde la última vez que se preguntó
+    long tomarDescartados() {
+        return descartados.getAndSet(0);
+    }
+}
@@ -0,0 +1,336 @@
+package repo;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import model.Cliente;
+import model.Empleado;
+import model.Servicio;
+import model.Turno;
+import services.ClienteService;
+import services.EmpleadoService;
+import services.ServicioService;
+import services.TurnoService;
+import util.ObservadorCambios;
+
+/**
+ * Registro de auditoría de todos los services: cada alta, modificación o baja
+ * de clientes, servicios, empleados y turnos queda en data/auditoria.log,
+ * una línea por cambio, separada por tabs:
+ * {@code 2026-10-17T10:15:30.123	cliente	ALTA	47620039	-}
+ *
+ * <p>Registrar un cambio no arma textos ni toca el disco: sólo copia la hora,
+ * dos códigos y las referencias al ID en un {@link AnilloEventos}. Un hilo de
+ * fondo lo vacía cada {@value #INTERVALO_MS} ms (antes si se está llenando) y
+ * agrega las líneas al final del archivo, que se conserva entre ejecuciones.
+ * Si aun así se llena, los eventos que no entran se cuentan y el archivo lo
+ * indica con una línea que empieza con #.</p>
+ *
+ * <p>Las consultas (por entidad, ID y rango de fechas) primero escriben lo
+ * pendiente y después leen el archivo desde el final, de a bloques: los
+ * últimos cambios o los de un período reciente no recorren todo el archivo.</p>
+ */
+public class Auditoria implements ObservadorCambios {
+
+    private static final String AUDITORIA_FILE = PersistenciaArchivo.DATA_DIR + File.separator + "auditoria.log";
+
+    private static final int CAPACIDAD = 1 << 16;
+    private static final int LOTE = 4096;
+    private static final long INTERVALO_MS = 200;
+    private static final int BLOQUE_LECTURA = 64 * 1024;
+
+    // varios hilos publican a la vez: el archivo puede quedar apenas desordenado,
+    // así que se sigue leyendo un poco antes de "desde"
+    private static final long MARGEN_MINUTOS = 1;
+
+    // el código de cada entidad es su posición
+    private static final String[] ENTIDADES = {"cliente", "servicio", "empleado", "turno"};
+    private static final Operacion[] OPERACIONES = Operacion.values();
+
+    // ancho fijo: las fechas se pueden comparar como texto
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+    private static final String SIN_DETALLE = "-";
+
+    private final String archivo;
+    private final AnilloEventos anillo = new AnilloEventos(CAPACIDAD);
+    private final AnilloEventos.Lector escritor = this::escribir;
+    private final ZoneId zona = ZoneId.systemDefault();
+    private final Thread hilo;
+    private volatile boolean activo = true;
+    private BufferedWriter salida;   // se usa con el monitor tomado
+
+    // en una ráfaga muchos eventos caen en el mismo milisegundo: se formatea una vez
+    private long ultimoMomento = Long.MIN_VALUE;
+    private String ultimoMomentoTexto;
+
+    private Auditoria(String archivo) {
+        this.archivo = archivo;
+        this.hilo = new Thread(this::correr, "auditoria");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::cerrar));
+    }
+
+    /** Empieza a registrar los cambios de los cuatro services. */
+    public static Auditoria abrir(ClienteService cs,
+                                  ServicioService ss,
+                                  EmpleadoService es,
+                                  TurnoService ts) {
+        Auditoria auditoria = new Auditoria(AUDITORIA_FILE);
+        cs.agregarObservador(auditoria);
+        ss.agregarObservador(auditoria);
+        es.agregarObservador(auditoria);
+        ts.agregarObservador(auditoria);
+        return auditoria;
+    }
+
+    // Se llama desde el hilo que hizo el cambio
+    @Override
+    public void notificar(Operacion operacion, Object entidad) {
+        byte tipo;
+        String id;
+        String detalle = null;
+        if (entidad instanceof Cliente c) {
+            tipo = 0;
+            id = c.getDni();
+        } else if (entidad instanceof Servicio s) {
+            tipo = 1;
+            id = s.getId();
+        } else if (entidad instanceof Empleado e) {
+            tipo = 2;
+            id = e.getId();
+        } else if (entidad instanceof Turno t) {
+            tipo = 3;
+            id = t.getId();
+            detalle = t.getEstado().name();
+        } else {
+            return;
+        }
+        anillo.publicar(System.currentTimeMillis(), tipo, (byte) operacion.ordinal(), id, detalle);
+        // en una ráfaga (ej. importación) no se espera al próximo intervalo para vaciar
+        if (anillo.estaPorLlenarse()) LockSupport.unpark(hilo);
+    }
+
+    /**
+     * Cambios registrados, del más viejo al más nuevo. Cualquier filtro en
+     * null no filtra; desde y hasta incluidos.
+     *
+     * @param entidad "cliente", "servicio", "empleado" o "turno"
+     * @param id      DNI del cliente o ID del servicio, empleado o turno
+     */
+    public synchronized List<EventoAuditoria> consultar(String entidad, String id,
+                                                        LocalDateTime desde, LocalDateTime hasta) {
+        vaciar();
+
+        String desdeTexto = desde == null ? null : desde.format(FORMATO_ARCHIVO);
+        String hastaTexto = hasta == null ? null : hasta.format(FORMATO_ARCHIVO);
+        String cortarEn = desde == null ? null : desde.minusMinutes(MARGEN_MINUTOS).format(FORMATO_ARCHIVO);
+        List<EventoAuditoria> resultado = new ArrayList<>();
+
+        leerDesdeElFinal(linea -> {
+            // la fecha es lo primero: se filtra sin partir la línea
+            String momento = linea.substring(0, Math.min(linea.length(), 23));
+            if (cortarEn != null && momento.compareTo(cortarEn) < 0) return false;
+            if (desdeTexto != null && momento.compareTo(desdeTexto) < 0) return true;
+            if (hastaTexto != null && momento.compareTo(hastaTexto) > 0) return true;
+
+            EventoAuditoria ev = leerLinea(linea);
+            if (coincide(ev, entidad, id)) resultado.add(ev);
+            return true;
+        });
+        Collections.reverse(resultado);
+        return resultado;
+    }
+
+    // Los últimos cambios de una entidad (null = de todas), del más viejo al más nuevo
+    public List<EventoAuditoria> ultimos(String entidad, int cantidad) {
+        return ultimos(entidad, null, cantidad);
+    }
+
+    // Los últimos cambios de un cliente (por DNI), servicio, empleado o turno
+    public synchronized List<EventoAuditoria> ultimos(String entidad, String id, int cantidad) {
+        vaciar();
+
+        List<EventoAuditoria> resultado = new ArrayList<>();
+        if (cantidad <= 0) return resultado;
+
+        leerDesdeElFinal(linea -> {
+            EventoAuditoria ev = leerLinea(linea);
+            if (coincide(ev, entidad, id)) resultado.add(ev);
+            return resultado.size() < cantidad;
+        });
+        Collections.reverse(resultado);
+        return resultado;
+    }
+
+    /** Escribe lo pendiente y termina el hilo. Se puede llamar más de una vez. */
+    public void cerrar() {
+        activo = false;
+        LockSupport.unpark(hilo);
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void correr() {
+        while (activo) {
+            vaciar();
+            if (activo && anillo.estaVacio()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(INTERVALO_MS));
+            }
+        }
+        synchronized (this) {
+            vaciar();
+            cerrarSalida();
+        }
+    }
+
+    // Pasa al archivo todo lo que hay en el anillo
+    private synchronized void vaciar() {
+        try {
+            boolean escribio = false;
+            while (anillo.vaciar(escritor, LOTE) > 0) {
+                escribio = true;
+            }
+
+            long descartados = anillo.tomarDescartados();
+            if (descartados > 0) {
+                abrirSalida();
+                salida.write("# " + descartados + " evento(s) descartados: el registro se llenó");
+                salida.newLine();
+                escribio = true;
+            }
+            if (escribio) salida.flush();
+        } catch (IOException | UncheckedIOException e) {
+            // lo que no se pudo escribir queda en el anillo para la próxima vuelta
+            System.out.println("Error escribiendo la auditoría: " + e.getMessage());
+        }
+    }
+
+    // Con el monitor tomado (lo llama el anillo desde vaciar)
+    private void escribir(long momento, byte entidad, byte accion, String id, String detalle) {
+        try {
+            abrirSalida();
+            if (momento != ultimoMomento) {
+                ultimoMomento = momento;
+                ultimoMomentoTexto = LocalDateTime.ofInstant(Instant.ofEpochMilli(momento), zona).format(FORMATO_ARCHIVO);
+            }
+            salida.write(ultimoMomentoTexto);
+            salida.write('\t');
+            salida.write(ENTIDADES[entidad]);
+            salida.write('\t');
+            salida.write(OPERACIONES[accion].name());
+            salida.write('\t');
+            salida.write(id == null ? SIN_DETALLE : id);
+            salida.write('\t');
+            salida.write(detalle == null ? SIN_DETALLE : detalle);
+            salida.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Recibe las líneas de la última a la primera; devuelve false para dejar de leer
+    private interface LectorLineas {
+        boolean linea(String linea);
+    }
+
+    /**
+     * Lee el archivo hacia atrás, de a bloques, y pasa cada línea con datos
+     * (salteando las vacías y las que empiezan con #).
+     */
+    private void leerDesdeElFinal(LectorLineas lector) {
+        Path ruta = Path.of(archivo);
+        if (!Files.exists(ruta)) return;
+
+        try (FileChannel ch = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long pos = ch.size();
+            byte[] parcial = new byte[0];   // comienzo de línea que quedó cortado al final del bloque
+            while (pos > 0) {
+                int n = (int) Math.min(BLOQUE_LECTURA, pos);
+                pos -= n;
+                byte[] buf = new byte[n + parcial.length];
+                ByteBuffer bloque = ByteBuffer.wrap(buf, 0, n);
+                while (bloque.hasRemaining()) {
+                    if (ch.read(bloque, pos + bloque.position()) < 0) throw new EOFException(archivo);
+                }
+                System.arraycopy(parcial, 0, buf, n, parcial.length);
+
+                int fin = buf.length;
+                for (int i = buf.length - 1; i >= 0; i--) {
+                    if (buf[i] != '\n') continue;
+                    if (!pasarLinea(buf, i + 1, fin, lector)) return;
+                    fin = i;
+                }
+                parcial = Arrays.copyOf(buf, fin);
+            }
+            pasarLinea(parcial, 0, parcial.length, lector);
+        } catch (IOException e) {
+            System.out.println("Error leyendo la auditoría: " + e.getMessage());
+        }
+    }
+
+    private static boolean pasarLinea(byte[] buf, int inicio, int fin, LectorLineas lector) {
+        if (fin > inicio && buf[fin - 1] == '\r') fin--;
+        if (fin == inicio || buf[inicio] == '#') return true;
+        return lector.linea(new String(buf, inicio, fin - inicio, StandardCharsets.UTF_8));
+    }
+
+    private static boolean coincide(EventoAuditoria ev, String entidad, String id) {
+        if (ev == null) return false;
+        if (entidad != null && !ev.getEntidad().equalsIgnoreCase(entidad)) return false;
+        return id == null || ev.getId().equalsIgnoreCase(id);
+    }
+
+    // null si la línea no tiene el formato esperado
+    private static EventoAuditoria leerLinea(String linea) {
+        String[] partes = linea.split("\t");
+        if (partes.length < 5) return null;
+        try {
+            return new EventoAuditoria(
+                    LocalDateTime.parse(partes[0], FORMATO_ARCHIVO),
+                    partes[1],
+                    Operacion.valueOf(partes[2]),
+                    partes[3],
+                    SIN_DETALLE.equals(partes[4]) ? null : partes[4]
+            );
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void abrirSalida() throws IOException {
+        if (salida == null) {
+            PersistenciaArchivo.asegurarDirectorio();
+            salida = Files.newBufferedWriter(Path.of(archivo), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private void cerrarSalida() {
+        if (salida == null) return;
+        try {
+            salida.close();
+        } catch (IOException e) {
+            System.out.println("Error cerrando la auditoría: " + e.getMessage());
+        }
+        salida = null;
+    }
+}
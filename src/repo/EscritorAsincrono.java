@@ -0,0 +1,208 @@
+package repo;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hilo de fondo que hace toda la escritura a disco del journal, para que el
+ * menú no espere al disco.
+ *
+ * <p>El hilo del menú sólo encola: líneas del journal y, cada tanto, una
+ * compactación (una {@link PersistenciaArchivo.Foto} ya copiada). El escritor
+ * junta todo lo que llegó durante el intervalo y lo escribe de una vez, en el
+ * mismo orden en que se encoló. La cola es acotada: si el disco no da abasto,
+ * el que encola espera (en lugar de acumular memoria sin límite).</p>
+ *
+ * <p>Cada lote del journal se escribe con un solo write y se confirma con un
+ * solo fsync (group commit): una ráfaga de cambios cuesta un fsync, no uno
+ * por línea.</p>
+ */
+class EscritorAsincrono {
+
+    private static final int CAPACIDAD_COLA = 1024;
+
+    // cada cuánto se mira si la cola se llenó mientras se espera la ráfaga
+    private static final long PASO_ESPERA_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // se encola al detener, sólo para despertar al hilo
+    private static final Object DESPERTAR = new Object();
+
+    // se encola justo antes de tomar la foto de una compactación
+    private static final Object INICIO_FOTO = new Object();
+
+    private final String archivoJournal;
+    private final long intervaloMs;
+    private final BlockingQueue<Object> cola = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+    private final Thread hilo;
+    private final CountDownLatch fin = new CountDownLatch(1);
+
+    private volatile boolean activo = true;
+    private FileChannel canal;
+    private final StringBuilder pendientes = new StringBuilder();
+    private int lineasPendientes = 0;
+
+    // líneas encoladas mientras se tomaba la foto: puede que no estén en ella
+    private final List<String> duranteLaFoto = new ArrayList<>();
+    private boolean tomandoFoto = false;
+
+    EscritorAsincrono(String archivoJournal, long intervaloMs) {
+        this.archivoJournal = archivoJournal;
+        this.intervaloMs = intervaloMs;
+        this.hilo = new Thread(this::correr, "escritor-persistencia");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+
+        // si la aplicación se corta (Ctrl+C), que no se pierda lo encolado
+        Runtime.getRuntime().addShutdownHook(new Thread(this::detener));
+    }
+
+    void encolarLinea(String linea) {
+        encolar(linea);
+    }
+
+    void encolarInicioCompactacion() {
+        encolar(INICIO_FOTO);
+    }
+
+    void encolarCompactacion(PersistenciaArchivo.Foto foto) {
+        encolar(foto);
+    }
+
+    /** Escribe lo pendiente y termina el hilo. Se puede llamar más de una vez. */
+    void detener() {
+        activo = false;
+        fin.countDown();
+        cola.offer(DESPERTAR);
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void encolar(Object tarea) {
+        try {
+            cola.put(tarea);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void correr() {
+        List<Object> lote = new ArrayList<>();
+        while (activo || !cola.isEmpty()) {
+            try {
+                Object primera = cola.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                if (primera == null) continue;
+                lote.add(primera);
+
+                esperarRafaga();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                activo = false;
+            }
+            cola.drainTo(lote);
+            procesar(lote);
+            lote.clear();
+        }
+        cerrarCanal();
+    }
+
+    /**
+     * Deja que se junten los cambios de la ráfaga, salvo que estemos cerrando
+     * o que la cola ya esté llena (ej. una importación): ahí conviene escribir
+     * ya, porque el que encola está esperando.
+     */
+    private void esperarRafaga() throws InterruptedException {
+        long hasta = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        long restante;
+        while ((restante = hasta - System.nanoTime()) > 0 && cola.remainingCapacity() > 0) {
+            if (fin.await(Math.min(restante, PASO_ESPERA_NANOS), TimeUnit.NANOSECONDS)) return;
+        }
+    }
+
+    private void procesar(List<Object> lote) {
+        try {
+            for (Object tarea : lote) {
+                if (tarea instanceof String linea) {
+                    agregarPendiente(linea);
+                    if (tomandoFoto) duranteLaFoto.add(linea);
+                } else if (tarea == INICIO_FOTO) {
+                    tomandoFoto = true;
+                    duranteLaFoto.clear();
+                } else if (tarea instanceof PersistenciaArchivo.Foto foto) {
+                    // lo anterior a la foto tiene que quedar firme antes de compactar
+                    confirmarPendientes();
+                    if (compactar(foto)) {
+                        // reaplicar algo que ya está en la foto no cambia nada
+                        duranteLaFoto.forEach(this::agregarPendiente);
+                    }
+                    tomandoFoto = false;
+                    duranteLaFoto.clear();
+                }
+            }
+            confirmarPendientes();
+        } catch (IOException e) {
+            System.out.println("Error escribiendo el journal: " + e.getMessage());
+        }
+    }
+
+    private void agregarPendiente(String linea) {
+        pendientes.append(linea).append(System.lineSeparator());
+        lineasPendientes++;
+    }
+
+    // Un write y un fsync para todas las líneas juntadas
+    private void confirmarPendientes() throws IOException {
+        if (lineasPendientes == 0) return;
+        long inicio = System.nanoTime();
+
+        abrirCanal();
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(pendientes.toString());
+        while (bytes.hasRemaining()) {
+            canal.write(bytes);
+        }
+        canal.force(false);
+        EstadisticasPersistencia.registrarFsync();
+        EstadisticasPersistencia.registrarLoteJournal(lineasPendientes, System.nanoTime() - inicio);
+
+        pendientes.setLength(0);
+        lineasPendientes = 0;
+    }
+
+    // Guarda la foto y, sólo si salió bien, vacía el journal
+    private boolean compactar(PersistenciaArchivo.Foto foto) {
+        if (!PersistenciaArchivo.guardarFoto(foto)) return false;
+        cerrarCanal();
+        new File(archivoJournal).delete();
+        return true;
+    }
+
+    private void abrirCanal() throws IOException {
+        if (canal == null) {
+            PersistenciaArchivo.asegurarDirectorio();
+            canal = FileChannel.open(Path.of(archivoJournal), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private void cerrarCanal() {
+        if (canal == null) return;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            System.out.println("Error cerrando el journal: " + e.getMessage());
+        }
+        canal = null;
+    }
+}
@@ -0,0 +1,57 @@
+package repo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de la persistencia: cuántas escrituras se hicieron, cuántos
+ * fsync costaron y cuánto tardaron. Se actualizan desde el hilo escritor y
+ * se leen desde el menú, por eso son atómicos.
+ */
+public class EstadisticasPersistencia {
+
+    private static final AtomicLong archivosGuardados = new AtomicLong();
+    private static final AtomicLong nanosGuardado = new AtomicLong();
+    private static final AtomicLong maxNanosGuardado = new AtomicLong();
+
+    private static final AtomicLong lotesJournal = new AtomicLong();
+    private static final AtomicLong registrosJournal = new AtomicLong();
+    private static final AtomicLong nanosJournal = new AtomicLong();
+
+    private static final AtomicLong fsyncs = new AtomicLong();
+
+    static void registrarGuardado(long nanos) {
+        archivosGuardados.incrementAndGet();
+        nanosGuardado.addAndGet(nanos);
+        maxNanosGuardado.accumulateAndGet(nanos, Math::max);
+    }
+
+    static void registrarLoteJournal(int registros, long nanos) {
+        lotesJournal.incrementAndGet();
+        registrosJournal.addAndGet(registros);
+        nanosJournal.addAndGet(nanos);
+    }
+
+    static void registrarFsync() {
+        fsyncs.incrementAndGet();
+    }
+
+    public static long getFsyncs() {
+        return fsyncs.get();
+    }
+
+    public static String resumen() {
+        long guardados = archivosGuardados.get();
+        long lotes = lotesJournal.get();
+        return String.format(
+                "Persistencia: %d archivo(s) guardado(s) (prom %.1f ms, máx %.1f ms) | "
+                        + "journal: %d registro(s) en %d lote(s) (prom %.1f ms) | fsync: %d",
+                guardados,
+                guardados == 0 ? 0.0 : nanosGuardado.get() / 1e6 / guardados,
+                maxNanosGuardado.get() / 1e6,
+                registrosJournal.get(),
+                lotes,
+                lotes == 0 ? 0.0 : nanosJournal.get() / 1e6 / lotes,
+                fsyncs.get()
+        );
+    }
+}
@@ -0,0 +1,47 @@
+package repo;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import util.ObservadorCambios.Operacion;
+
+/**
+ * Un cambio registrado en data/auditoria.log: cuándo, sobre qué entidad
+ * (cliente, servicio, empleado o turno), qué operación y el DNI o ID
+ * afectado. En los turnos, el detalle es el estado que quedó.
+ */
+public final class EventoAuditoria {
+
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private final LocalDateTime momento;
+    private final String entidad;
+    private final Operacion operacion;
+    private final String id;
+    private final String detalle;
+
+    EventoAuditoria(LocalDateTime momento, String entidad, Operacion operacion, String id, String detalle) {
+        this.momento = momento;
+        this.entidad = entidad;
+        this.operacion = operacion;
+        this.id = id;
+        this.detalle = detalle;
+    }
+
+    public LocalDateTime getMomento() { return momento; }
+    public String getEntidad() { return entidad; }
+    public Operacion getOperacion() { return operacion; }
+    public String getId() { return id; }
+
+    // null si no tiene
+    public String getDetalle() { return detalle; }
+
+    @Override
+    public String toString() {
+        return String.format("%s | %-8s | %-12s | %s%s",
+                momento.format(FORMATO),
+                entidad,
+                operacion,
+                id,
+                detalle == null ? "" : " (" + detalle + ")");
+    }
+}
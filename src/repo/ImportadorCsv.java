@@ -0,0 +1,398 @@
+package repo;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import model.Cliente;
+import model.Empleado;
+import model.Servicio;
+import model.Turno;
+import services.ClienteService;
+import services.EmpleadoService;
+import services.ServicioService;
+import services.TurnoService;
+import util.AsignadorIds;
+import util.ClaveId;
+
+/**
+ * Importación masiva desde CSV (por ej. al sumar una sucursal nueva).
+ *
+ * <p>La primera línea tiene que ser el encabezado con los nombres de las
+ * columnas (en cualquier orden), separados por coma o punto y coma:</p>
+ * <pre>
+ * clientes:  nombre, apellido, dni, telefono [, id]
+ * servicios: nombre, precioBase, duracionMinutos [, id]
+ * turnos:    clienteDni, empleadoId, servicioId, fechaHora [, estado, id]
+ * </pre>
+ *
+ * <p>El archivo se lee de a una línea y las filas válidas se dan de alta por
+ * lotes (los servicios, que son pocos, de a uno). Los duplicados (DNI, ID)
+ * se detectan con HashSet en una sola pasada. Los turnos pendientes se
+ * reservan de a uno como desde el menú (sin superponerse ni en fecha pasada);
+ * los realizados y cancelados van por lotes.
+ * Las filas rechazadas se escriben, con su motivo, en un reporte al lado del
+ * CSV: clientes.csv genera clientes.rechazos.csv.</p>
+ */
+public class ImportadorCsv {
+
+    private static final int TAMANIO_LOTE = 5000;
+
+    // de a cuántos se reservan los IDs de los turnos que vienen sin ID
+    private static final int BLOQUE_IDS = 1000;
+
+    private static final DateTimeFormatter FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    /** Resumen de una importación. */
+    public static final class Resultado {
+        private int importados;
+        private int rechazados;
+        private Path reporte;
+        private long milisegundos;
+
+        public int getImportados() { return importados; }
+        public int getRechazados() { return rechazados; }
+        public Path getReporte() { return reporte; }
+        public long getMilisegundos() { return milisegundos; }
+
+        @Override
+        public String toString() {
+            String texto = String.format("Importados: %d | Rechazados: %d | %d ms",
+                    importados, rechazados, milisegundos);
+            if (reporte != null) texto += "\nDetalle de rechazos en: " + reporte;
+            return texto;
+        }
+    }
+
+    public static Resultado importarClientes(Path csv, ClienteService cs) throws IOException {
+        Set<String> dnis = new HashSet<>();
+        for (Cliente c : cs.listarClientes()) {
+            dnis.add(c.getDni());
+        }
+
+        return importar(csv, new String[] { "nombre", "apellido", "dni", "telefono" }, f -> {
+            Cliente c = new Cliente(vacioANull(f.campo("id")), f.campo("nombre"),
+                    f.campo("apellido"), f.campo("dni"), f.campo("telefono"));
+            cs.validarDatos(c);
+            if (!dnis.add(c.getDni())) {
+                throw new IllegalArgumentException("DNI duplicado: " + c.getDni());
+            }
+            return c;
+        }, lote -> {
+            cs.agregarClientes(lote);
+            return lote;
+        });
+    }
+
+    public static Resultado importarServicios(Path csv, ServicioService ss) throws IOException {
+        Set<String> ids = new HashSet<>();
+        for (Servicio s : ss.listarServicios()) {
+            ids.add(ClaveId.normalizar(s.getId()));
+        }
+
+        // agregarServicio no es todo o nada: cada fila se da de alta al leerla y,
+        // si falla, se rechaza sólo esa fila. Así el ID que recibe una fila sin ID
+        // ya está ocupado cuando llega otra que lo trae escrito.
+        return importar(csv, new String[] { "nombre", "precioBase", "duracionMinutos" }, f -> {
+            String id = vacioANull(f.campo("id"));
+            if (id != null && ids.contains(ClaveId.normalizar(id))) {
+                throw new IllegalArgumentException("ID de servicio duplicado: " + id);
+            }
+            Servicio s = new Servicio(id, f.campo("nombre"),
+                    decimal(f.campo("precioBase")), entero(f.campo("duracionMinutos")));
+            ss.validarDatos(s);
+
+            Servicio nuevo = ss.agregarServicio(s);
+            ids.add(ClaveId.normalizar(nuevo.getId()));
+            return nuevo;
+        }, lote -> lote);
+    }
+
+    public static Resultado importarTurnos(Path csv,
+                                           TurnoService ts,
+                                           ClienteService cs,
+                                           ServicioService ss,
+                                           EmpleadoService es) throws IOException {
+        // una sola pasada por lo que ya está cargado, para validar cada fila con HashMap/HashSet
+        Map<String, Cliente> clientes = new HashMap<>();
+        for (Cliente c : cs.listarClientes()) clientes.put(c.getDni(), c);
+        Map<String, Servicio> servicios = new HashMap<>();
+        for (Servicio s : ss.listarServicios()) servicios.put(ClaveId.normalizar(s.getId()), s);
+        Map<String, Empleado> empleados = new HashMap<>();
+        for (Empleado e : es.listarEmpleados()) empleados.put(ClaveId.normalizar(e.getId()), e);
+
+        // los IDs del archivo; los que ya existen se le preguntan al service (sin leer todo el historial)
+        Set<String> ids = new HashSet<>();
+        // las filas sin ID toman números de a bloques, no de a uno del contador compartido
+        AsignadorIds.Reserva nuevosIds = ts.reservarIdsTurno(BLOQUE_IDS);
+        // los pendientes que ya quedaron reservados al validar su fila
+        Set<Turno> reservados = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        try {
+            return importar(csv, new String[] { "clienteDni", "empleadoId", "servicioId", "fechaHora" }, f -> {
+                Cliente cliente = clientes.get(f.campo("clienteDni"));
+                if (cliente == null) throw new IllegalArgumentException("Cliente inexistente: " + f.campo("clienteDni"));
+                Empleado empleado = empleados.get(ClaveId.normalizar(f.campo("empleadoId")));
+                if (empleado == null) throw new IllegalArgumentException("Empleado inexistente: " + f.campo("empleadoId"));
+                Servicio servicio = servicios.get(ClaveId.normalizar(f.campo("servicioId")));
+                if (servicio == null) throw new IllegalArgumentException("Servicio inexistente: " + f.campo("servicioId"));
+
+                LocalDateTime fechaHora = fechaHora(f.campo("fechaHora"));
+                Turno.Estado estado = estado(f.campo("estado"));
+
+                String id = vacioANull(f.campo("id"));
+                if (id != null && (ids.contains(ClaveId.normalizar(id)) || ts.existeTurno(id))) {
+                    throw new IllegalArgumentException("ID de turno duplicado: " + id);
+                }
+
+                // un pendiente se reserva ya, por el mismo camino que el menú: se controla
+                // la superposición y se agrega con la franja tomada (y no puede ser pasado)
+                if (estado == Turno.Estado.PENDIENTE) {
+                    Turno t = id == null
+                            ? ts.registrarTurno(cliente, empleado, servicio, fechaHora)
+                            : ts.registrarTurno(id, cliente, empleado, servicio, fechaHora);
+                    ids.add(ClaveId.normalizar(t.getId()));
+                    reservados.add(t);
+                    return t;
+                }
+
+                if (id == null) {
+                    do {
+                        id = nuevosIds.siguiente();
+                    } while (ids.contains(ClaveId.normalizar(id)));
+                }
+                Turno t = new Turno(id, cliente, empleado, servicio, fechaHora, estado);
+                ids.add(ClaveId.normalizar(t.getId()));
+                return t;
+            }, lote -> {
+                // los pendientes ya entraron al validarlos; los demás, por lotes
+                List<Turno> agregados = new ArrayList<>();
+                List<Turno> cerrados = new ArrayList<>();
+                for (Turno t : lote) {
+                    if (reservados.remove(t)) agregados.add(t);
+                    else cerrados.add(t);
+                }
+                agregados.addAll(ts.restaurarTurnos(cerrados));
+                return agregados;
+            });
+        } finally {
+            nuevosIds.liberar();
+        }
+    }
+
+    // ----------------------------------------------------------------
+
+    // Valida una fila y arma la entidad; cualquier RuntimeException la rechaza
+    private interface Conversor<T> {
+        T convertir(Fila f);
+    }
+
+    // Da de alta un lote ya validado y devuelve los que realmente se agregaron
+    private interface Alta<T> {
+        List<T> agregar(List<T> lote);
+    }
+
+    private static final class Fila {
+        private final Map<String, Integer> columnas;
+        private final List<String> campos = new ArrayList<>();
+
+        Fila(Map<String, Integer> columnas) {
+            this.columnas = columnas;
+        }
+
+        // "" si la columna no está en el encabezado o en la fila
+        String campo(String columna) {
+            Integer i = columnas.get(columna.toLowerCase());
+            return i == null || i >= campos.size() ? "" : campos.get(i);
+        }
+    }
+
+    private static <T> Resultado importar(Path csv,
+                                          String[] obligatorias,
+                                          Conversor<T> conversor,
+                                          Alta<T> alta) throws IOException {
+        long inicio = System.nanoTime();
+        Resultado resultado = new Resultado();
+        List<String> rechazos = new ArrayList<>();
+
+        List<T> lote = new ArrayList<>(TAMANIO_LOTE);
+        List<Integer> lineasLote = new ArrayList<>(TAMANIO_LOTE);
+
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String encabezado = in.readLine();
+            if (encabezado == null) throw new IOException("El archivo está vacío.");
+            if (encabezado.startsWith("\uFEFF")) encabezado = encabezado.substring(1);
+
+            char separador = encabezado.indexOf(';') >= 0 ? ';' : ',';
+            List<String> nombres = new ArrayList<>();
+            partir(encabezado, separador, nombres);
+            Map<String, Integer> columnas = new HashMap<>();
+            for (int i = 0; i < nombres.size(); i++) {
+                columnas.put(nombres.get(i).toLowerCase(), i);
+            }
+            for (String columna : obligatorias) {
+                if (!columnas.containsKey(columna.toLowerCase())) {
+                    throw new IOException("Falta la columna '" + columna + "' en el encabezado.");
+                }
+            }
+
+            Fila fila = new Fila(columnas);
+            String linea;
+            int nroLinea = 1;
+            while ((linea = in.readLine()) != null) {
+                nroLinea++;
+                if (linea.isBlank()) continue;
+
+                try {
+                    if (!partir(linea, separador, fila.campos)) {
+                        throw new IllegalArgumentException("Comillas sin cerrar.");
+                    }
+                    lote.add(conversor.convertir(fila));
+                    lineasLote.add(nroLinea);
+                } catch (RuntimeException ex) {
+                    rechazos.add(nroLinea + ";" + csvCampo(ex.getMessage()) + ";" + csvCampo(linea));
+                }
+
+                if (lote.size() == TAMANIO_LOTE) {
+                    darDeAlta(lote, lineasLote, alta, resultado, rechazos);
+                }
+            }
+            darDeAlta(lote, lineasLote, alta, resultado, rechazos);
+        }
+
+        resultado.rechazados = rechazos.size();
+        if (!rechazos.isEmpty()) {
+            resultado.reporte = escribirRechazos(csv, rechazos);
+        }
+        resultado.milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        return resultado;
+    }
+
+    private static <T> void darDeAlta(List<T> lote,
+                                      List<Integer> lineasLote,
+                                      Alta<T> alta,
+                                      Resultado resultado,
+                                      List<String> rechazos) {
+        if (lote.isEmpty()) return;
+        try {
+            List<T> agregados = alta.agregar(lote);
+            resultado.importados += agregados.size();
+            if (agregados.size() < lote.size()) {
+                // lo que el service salteó (ej. un ID que apareció mientras tanto) no se cuenta
+                Set<T> dados = Collections.newSetFromMap(new IdentityHashMap<>());
+                dados.addAll(agregados);
+                for (int i = 0; i < lote.size(); i++) {
+                    if (!dados.contains(lote.get(i))) {
+                        rechazos.add(lineasLote.get(i) + ";" + csvCampo("Ya existía, no se dio de alta.") + ";");
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            // las filas ya estaban validadas; si igual falla, se informa todo el lote
+            for (int nro : lineasLote) {
+                rechazos.add(nro + ";" + csvCampo("Lote rechazado: " + ex.getMessage()) + ";");
+            }
+        }
+        lote.clear();
+        lineasLote.clear();
+    }
+
+    private static Path escribirRechazos(Path csv, List<String> rechazos) throws IOException {
+        String nombre = csv.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        String base = punto > 0 ? nombre.substring(0, punto) : nombre;
+        Path reporte = csv.resolveSibling(base + ".rechazos.csv");
+
+        try (BufferedWriter out = Files.newBufferedWriter(reporte, StandardCharsets.UTF_8)) {
+            out.write("linea;motivo;contenido");
+            out.newLine();
+            for (String r : rechazos) {
+                out.write(r);
+                out.newLine();
+            }
+        }
+        return reporte;
+    }
+
+    /**
+     * Parte una línea CSV en campos (con comillas dobles opcionales y "" como
+     * comilla escapada). Devuelve false si quedó una comilla sin cerrar.
+     */
+    private static boolean partir(String linea, char separador, List<String> campos) {
+        campos.clear();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString().trim());
+        return !entreComillas;
+    }
+
+    private static String csvCampo(String s) {
+        if (s == null) return "";
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String vacioANull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+
+    private static double decimal(String s) {
+        try {
+            return Double.parseDouble(s.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido: " + s);
+        }
+    }
+
+    private static int entero(String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido: " + s);
+        }
+    }
+
+    // Acepta dd/MM/yyyy HH:mm (como en el menú) o el formato ISO de los .json
+    private static LocalDateTime fechaHora(String s) {
+        try {
+            return s.indexOf('/') >= 0 ? LocalDateTime.parse(s, FECHA_HORA) : LocalDateTime.parse(s);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida: " + s);
+        }
+    }
+
+    private static Turno.Estado estado(String s) {
+        if (s.isBlank()) return Turno.Estado.PENDIENTE;
+        try {
+            return Turno.Estado.valueOf(s.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Estado inválido: " + s);
+        }
+    }
+}
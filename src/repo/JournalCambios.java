@@ -0,0 +1,251 @@
+package repo;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.Cliente;
+import model.Empleado;
+import model.Servicio;
+import model.Turno;
+import services.ClienteService;
+import services.EmpleadoService;
+import services.ServicioService;
+import services.TurnoService;
+import util.ObservadorCambios;
+
+/**
+ * Journal de cambios: en vez de reescribir los cuatro archivos en cada vuelta
+ * del menú, cada alta, modificación o baja se agrega como una línea al final
+ * de data/journal.json, por ej:
+ * {"op":"put","entidad":"servicio","id":"S3","nombre":"Barba","precioBase":8000.0,"duracionMinutos":20}
+ * {"op":"del","entidad":"cliente","dni":"47620039"}
+ *
+ * <p>Al iniciar se reaplica sobre la última foto (los .json de siempre) y,
+ * cada tanto, se compacta: se guarda la foto completa y se vacía el journal.</p>
+ *
+ * <p>La escritura la hace un {@link EscritorAsincrono} en segundo plano; el
+ * intervalo con que junta los cambios se configura con la propiedad
+ * {@code -Dpeluqueria.intervaloGuardadoMs=500}.</p>
+ */
+public class JournalCambios implements ObservadorCambios {
+
+    private static final String JOURNAL_FILE = PersistenciaArchivo.DATA_DIR + File.separator + "journal.json";
+
+    // cantidad de registros a partir de la cual conviene compactar
+    private static final int MAX_REGISTROS = 200;
+
+    private static final long INTERVALO_MS = Long.getLong("peluqueria.intervaloGuardadoMs", 500);
+
+    private final ClienteService cs;
+    private final ServicioService ss;
+    private final EmpleadoService es;
+    private final TurnoService ts;
+
+    private EscritorAsincrono escritor;
+    private final AtomicInteger registros = new AtomicInteger();   // se notifica desde varios hilos
+
+    private JournalCambios(ClienteService cs,
+                           ServicioService ss,
+                           EmpleadoService es,
+                           TurnoService ts) {
+        this.cs = cs;
+        this.ss = ss;
+        this.es = es;
+        this.ts = ts;
+    }
+
+    /**
+     * Reaplica el journal pendiente sobre los datos ya cargados, lo compacta
+     * si tenía algo y queda escuchando los cambios de los services.
+     */
+    public static JournalCambios abrir(ClienteService cs,
+                                       ServicioService ss,
+                                       EmpleadoService es,
+                                       TurnoService ts) {
+        JournalCambios journal = new JournalCambios(cs, ss, es, ts);
+        journal.reaplicar();
+        if (journal.registros.get() > 0) {
+            journal.compactarAlIniciar();
+        }
+        journal.escritor = new EscritorAsincrono(JOURNAL_FILE, INTERVALO_MS);
+
+        cs.agregarObservador(journal);
+        ss.agregarObservador(journal);
+        es.agregarObservador(journal);
+        ts.agregarObservador(journal);
+        return journal;
+    }
+
+    @Override
+    public void notificar(Operacion operacion, Object entidad) {
+        String linea = operacion == Operacion.BAJA ? lineaBaja(entidad) : lineaAlta(entidad);
+        if (linea == null) return;
+
+        escritor.encolarLinea(linea);
+        registros.incrementAndGet();
+    }
+
+    public void compactarSiCorresponde() {
+        if (registros.get() >= MAX_REGISTROS) {
+            compactar();
+        }
+    }
+
+    /**
+     * La foto se copia acá (hilo del menú) y se escribe en segundo plano. Otra
+     * terminal puede cambiar algo mientras se copia: lo que se encole desde el
+     * aviso de inicio hasta la foto se vuelve a escribir en el journal nuevo.
+     */
+    public void compactar() {
+        escritor.encolarInicioCompactacion();
+        escritor.encolarCompactacion(PersistenciaArchivo.tomarFoto(cs, ss, es, ts));
+        registros.set(0);
+    }
+
+    public void cerrar() {
+        compactar();
+        escritor.detener();
+    }
+
+    // Antes de arrancar el escritor: guarda lo reaplicado y vacía el journal
+    private void compactarAlIniciar() {
+        if (PersistenciaArchivo.guardarTodo(cs, ss, es, ts)) {
+            new File(JOURNAL_FILE).delete();
+            registros.set(0);
+        }
+    }
+
+    private void reaplicar() {
+        File f = new File(JOURNAL_FILE);
+        if (!f.exists()) return;
+
+        try (LectorJson lector = new LectorJson(new FileReader(f, StandardCharsets.UTF_8))) {
+            RegistroJson r = new RegistroJson();
+            while (r.leer(lector)) {
+                if (!lector.objetoValido()) continue;
+
+                try {
+                    aplicar(r);
+                } catch (RuntimeException ex) {
+                    // un registro que ya no aplica (ej. entidad borrada) no frena el resto
+                }
+                registros.incrementAndGet();
+            }
+        } catch (IOException e) {
+            System.out.println("Error leyendo el journal: " + e.getMessage());
+        }
+    }
+
+    private void aplicar(RegistroJson r) {
+        boolean baja = "del".equals(r.op);
+        if (r.entidad == null) return;
+
+        switch (r.entidad) {
+            case "cliente" -> {
+                if (baja) {
+                    cs.eliminarPorDni(r.dni);
+                } else if (existeCliente(r.dni)) {
+                    cs.modificarCliente(r.dni, r.nombre, r.apellido, r.telefono);
+                } else {
+                    cs.agregarCliente(new Cliente(r.id, r.nombre, r.apellido, r.dni, r.telefono));
+                }
+            }
+            case "servicio" -> {
+                if (baja) {
+                    ss.eliminarServicio(r.id);
+                } else if (existeServicio(r.id)) {
+                    ss.modificarServicio(r.id, r.nombre, r.precioBase, r.duracionMinutos);
+                } else {
+                    ss.agregarServicio(new Servicio(r.id, r.nombre, r.precioBase, r.duracionMinutos));
+                }
+            }
+            case "empleado" -> {
+                if (baja) {
+                    es.eliminar(r.id);
+                } else if (existeEmpleado(r.id)) {
+                    es.modificar(r.id, r.nombre, null);
+                } else {
+                    es.crearEmpleado(r.id, r.nombre, r.tipo);
+                }
+            }
+            case "turno" -> {
+                if (buscarTurno(r) != null) {
+                    // por el service, así el cambio cuenta para el próximo guardado
+                    if ("REALIZADO".equalsIgnoreCase(r.estado)) ts.finalizarTurno(r.id);
+                    else if ("CANCELADO".equalsIgnoreCase(r.estado)) ts.cancelarTurno(r.id);
+                } else {
+                    PersistenciaArchivo.restaurarTurno(r, ts, cs, ss, es);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    // Sólo en el mes del turno: buscarPorId(id) cargaría todo el historial
+    // por cada turno nuevo del journal (que todavía no está en ningún mes)
+    private Turno buscarTurno(RegistroJson r) {
+        try {
+            return ts.buscarPorId(r.id, YearMonth.from(LocalDateTime.parse(r.fechaHora)));
+        } catch (RuntimeException ex) {
+            // sin fecha válida restaurarTurno también lo saltea
+            return null;
+        }
+    }
+
+    private boolean existeCliente(String dni) {
+        return cs.existeCliente(dni);
+    }
+
+    private boolean existeServicio(String id) {
+        try {
+            ss.buscarPorId(id);
+            return true;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private boolean existeEmpleado(String id) {
+        try {
+            es.buscarPorId(id);
+            return true;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private static String lineaAlta(Object entidad) {
+        String entidadJson;
+        String json;
+        if (entidad instanceof Cliente c) {
+            entidadJson = "cliente";
+            json = PersistenciaArchivo.jsonCliente(c);
+        } else if (entidad instanceof Servicio s) {
+            entidadJson = "servicio";
+            json = PersistenciaArchivo.jsonServicio(s);
+        } else if (entidad instanceof Empleado e) {
+            entidadJson = "empleado";
+            json = PersistenciaArchivo.jsonEmpleado(e);
+        } else if (entidad instanceof Turno t) {
+            entidadJson = "turno";
+            json = PersistenciaArchivo.jsonTurno(t);
+        } else {
+            return null;
+        }
+        // {"op":"put","entidad":"...", + los campos de la entidad
+        return "{\"op\":\"put\",\"entidad\":\"" + entidadJson + "\"," + json.substring(1);
+    }
+
+    private static String lineaBaja(Object entidad) {
+        if (entidad instanceof Cliente c) {
+            return "{\"op\":\"del\",\"entidad\":\"cliente\",\"dni\":" + PersistenciaArchivo.quote(c.getDni()) + "}";
+        } else if (entidad instanceof Servicio s) {
+            return "{\"op\":\"del\",\"entidad\":\"servicio\",\"id\":" + PersistenciaArchivo.quote(s.getId()) + "}";
+        } else if (entidad instanceof Empleado e) {
+            return "{\"op\":\"del\",\"entidad\":\"empleado\",\"id\":" + PersistenciaArchivo.quote(e.getId()) + "}";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,282 @@
+package repo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lector de archivos JSON-lines en una sola pasada, sin armar un Map por línea.
+ *
+ * <p>Lee directo de un buffer de caracteres: se pide el siguiente objeto, se
+ * recorren sus campos y cada valor se lee ya con su tipo. Soporta los escapes
+ * de JSON (\" \\ \/ \b \f \n \r \t \\uXXXX), así que nombres con comas,
+ * comillas o dos puntos ya no rompen la carga.</p>
+ *
+ * <p>Si una línea está mal formada se descarta hasta el fin de línea y
+ * {@link #objetoValido()} devuelve false, igual que antes se salteaban.</p>
+ */
+class LectorJson implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;   // null cuando todo el texto ya está en buf
+    private final char[] buf;
+    private int pos;
+    private int lim;
+
+    private char[] clave = new char[32];
+    private int largoClave;
+
+    private final StringBuilder sb = new StringBuilder();
+    private boolean valido;
+    private int ultimo = EOF;
+
+    LectorJson(Reader reader) {
+        this.reader = reader;
+        this.buf = new char[16 * 1024];
+        this.pos = 0;
+        this.lim = 0;
+    }
+
+    // Para leer un tramo de un texto que ya está en memoria
+    LectorJson(char[] datos, int desde, int hasta) {
+        this.reader = null;
+        this.buf = datos;
+        this.pos = desde;
+        this.lim = hasta;
+    }
+
+    /** Avanza hasta el próximo '{'. Devuelve false al llegar al final. */
+    boolean siguienteObjeto() throws IOException {
+        int c;
+        while ((c = leer()) != EOF) {
+            if (c == '{') {
+                valido = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Se posiciona en el valor del próximo campo del objeto actual.
+     * Devuelve false al cerrar el objeto (o si la línea estaba mal).
+     */
+    boolean siguienteCampo() throws IOException {
+        if (!valido) return false;
+
+        int c = saltarEspacios();
+        if (c == ',') c = saltarEspacios();
+        if (c == '}') return false;
+        if (c != '"') return invalidar();
+
+        largoClave = 0;
+        while ((c = leerCaracterDeTexto()) >= 0) {
+            if (largoClave == clave.length) {
+                char[] nueva = new char[clave.length * 2];
+                System.arraycopy(clave, 0, nueva, 0, largoClave);
+                clave = nueva;
+            }
+            clave[largoClave++] = (char) c;
+        }
+        if (c != FIN_TEXTO) return invalidar();
+
+        if (saltarEspacios() != ':') return invalidar();
+        return true;
+    }
+
+    /** Compara la clave actual sin crear un String. */
+    boolean esClave(String nombre) {
+        if (nombre.length() != largoClave) return false;
+        for (int i = 0; i < largoClave; i++) {
+            if (clave[i] != nombre.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    boolean objetoValido() {
+        return valido;
+    }
+
+    /** Lee un valor de texto; el literal null se devuelve como null. */
+    String texto() throws IOException {
+        int c = saltarEspacios();
+        if (c == '"') {
+            sb.setLength(0);
+            while ((c = leerCaracterDeTexto()) >= 0) {
+                sb.append((char) c);
+            }
+            if (c != FIN_TEXTO) {
+                invalidar();
+                return null;
+            }
+            return sb.toString();
+        }
+        // números, true/false o null sin comillas
+        sb.setLength(0);
+        while (c != EOF && !esFinDeValor(c)) {
+            sb.append((char) c);
+            c = leer();
+        }
+        devolver(c);
+        String crudo = sb.toString();
+        return crudo.equals("null") ? null : crudo;
+    }
+
+    int entero() throws IOException {
+        int c = saltarEspacios();
+        boolean comillas = c == '"';
+        if (comillas) c = leer();
+
+        boolean negativo = c == '-';
+        if (negativo) c = leer();
+
+        int valor = 0;
+        boolean digitos = false;
+        while (c >= '0' && c <= '9') {
+            valor = valor * 10 + (c - '0');
+            digitos = true;
+            c = leer();
+        }
+        if (comillas) {
+            if (c != '"') digitos = false;
+        } else {
+            devolver(c);
+        }
+        if (!digitos) {
+            invalidar();
+            return 0;
+        }
+        return negativo ? -valor : valor;
+    }
+
+    double decimal() throws IOException {
+        String s = texto();
+        if (s == null) return 0;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            invalidar();
+            return 0;
+        }
+    }
+
+    /** Descarta el valor del campo actual (texto, número, literal, objeto o array). */
+    void saltarValor() throws IOException {
+        int c = saltarEspacios();
+        if (c == '"') {
+            while ((c = leerCaracterDeTexto()) >= 0) { }
+            if (c != FIN_TEXTO) invalidar();
+            return;
+        }
+        if (c == '{' || c == '[') {
+            int profundidad = 1;
+            while (profundidad > 0 && (c = leer()) != EOF) {
+                if (c == '"') {
+                    while ((c = leerCaracterDeTexto()) >= 0) { }
+                    if (c != FIN_TEXTO) {
+                        invalidar();
+                        return;
+                    }
+                } else if (c == '{' || c == '[') {
+                    profundidad++;
+                } else if (c == '}' || c == ']') {
+                    profundidad--;
+                } else if (c == '\n') {
+                    invalidar();
+                    return;
+                }
+            }
+            return;
+        }
+        while (c != EOF && !esFinDeValor(c)) {
+            c = leer();
+        }
+        devolver(c);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) reader.close();
+    }
+
+    // ----------------------------------------------------------------
+
+    private static final int FIN_TEXTO = -2;
+    private static final int TEXTO_CORTADO = -3;
+
+    /**
+     * Lee un carácter de dentro de un texto entre comillas, resolviendo escapes.
+     * Devuelve FIN_TEXTO en la comilla de cierre o TEXTO_CORTADO si la línea
+     * termina antes.
+     */
+    private int leerCaracterDeTexto() throws IOException {
+        int c = leer();
+        if (c == '"') return FIN_TEXTO;
+        if (c == EOF || c == '\n') return TEXTO_CORTADO;
+        if (c != '\\') return c;
+
+        c = leer();
+        switch (c) {
+            case '"', '\\', '/' -> { return c; }
+            case 'b' -> { return '\b'; }
+            case 'f' -> { return '\f'; }
+            case 'n' -> { return '\n'; }
+            case 'r' -> { return '\r'; }
+            case 't' -> { return '\t'; }
+            case 'u' -> {
+                int valor = 0;
+                for (int i = 0; i < 4; i++) {
+                    int d = Character.digit(leer(), 16);
+                    if (d < 0) return TEXTO_CORTADO;
+                    valor = valor * 16 + d;
+                }
+                return valor;
+            }
+            default -> { return TEXTO_CORTADO; }
+        }
+    }
+
+    private boolean invalidar() throws IOException {
+        valido = false;
+        // descartamos el resto de la línea (si no la terminamos de leer ya)
+        int c = ultimo;
+        while (c != EOF && c != '\n') {
+            c = leer();
+        }
+        return false;
+    }
+
+    private static boolean esFinDeValor(int c) {
+        return c == ',' || c == '}' || c == ']' || c == '\n'
+                || c == ' ' || c == '\t' || c == '\r';
+    }
+
+    // Dentro de un objeto el salto de línea no es espacio: cada registro va en su línea
+    private int saltarEspacios() throws IOException {
+        int c;
+        do {
+            c = leer();
+        } while (c == ' ' || c == '\t' || c == '\r');
+        return c;
+    }
+
+    private int leer() throws IOException {
+        if (pos == lim && !llenar()) return ultimo = EOF;
+        return ultimo = buf[pos++];
+    }
+
+    // Sólo se devuelve el último carácter leído, que sigue en el buffer
+    private void devolver(int c) {
+        if (c != EOF) pos--;
+    }
+
+    private boolean llenar() throws IOException {
+        if (reader == null) return false;
+        int n = reader.read(buf, 0, buf.length);
+        if (n <= 0) return false;
+        pos = 0;
+        lim = n;
+        return true;
+    }
+}
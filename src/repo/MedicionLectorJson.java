@@ -0,0 +1,154 @@
+package repo;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compara la velocidad de {@link LectorJson}/{@link RegistroJson} con la del
+ * parser de antes (trim + split + un HashMap por línea) sobre un archivo de
+ * turnos de varios millones de líneas.
+ *
+ * <p>Uso: {@code java repo.MedicionLectorJson [líneas] [archivo]}. Si no se
+ * indica archivo se genera uno temporal (2.000.000 de líneas por defecto) y
+ * se borra al terminar. Cada parser se corre varias veces y se informa la
+ * mejor vuelta; las primeras sirven para que el JIT compile los dos.</p>
+ */
+public class MedicionLectorJson {
+
+    private static final int LINEAS_POR_DEFECTO = 2_000_000;
+    private static final int VUELTAS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int lineas = args.length > 0 ? Integer.parseInt(args[0]) : LINEAS_POR_DEFECTO;
+        Path archivo;
+        boolean temporal = args.length < 2;
+        if (temporal) {
+            archivo = Files.createTempFile("turnos", ".json");
+            generar(archivo, lineas);
+        } else {
+            archivo = Path.of(args[1]);
+            if (!Files.exists(archivo)) generar(archivo, lineas);
+        }
+
+        try {
+            System.out.printf("Archivo: %s (%d MB)%n", archivo, Files.size(archivo) >> 20);
+            long mejorViejo = Long.MAX_VALUE;
+            long mejorNuevo = Long.MAX_VALUE;
+            int leidasViejo = 0;
+            int leidasNuevo = 0;
+            for (int i = 0; i < VUELTAS; i++) {
+                long inicio = System.nanoTime();
+                leidasViejo = leerConSplit(archivo);
+                mejorViejo = Math.min(mejorViejo, System.nanoTime() - inicio);
+
+                inicio = System.nanoTime();
+                leidasNuevo = leerConLector(archivo);
+                mejorNuevo = Math.min(mejorNuevo, System.nanoTime() - inicio);
+            }
+            informar("split + HashMap", leidasViejo, mejorViejo);
+            informar("LectorJson", leidasNuevo, mejorNuevo);
+            System.out.printf("LectorJson es %.1f veces más rápido%n", (double) mejorViejo / mejorNuevo);
+        } finally {
+            if (temporal) Files.deleteIfExists(archivo);
+        }
+    }
+
+    // Turnos como los que escribe PersistenciaArchivo, con los campos en el mismo orden
+    private static void generar(Path archivo, int lineas) throws IOException {
+        String[] estados = { "PENDIENTE", "REALIZADO", "CANCELADO" };
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        try (BufferedWriter out = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lineas; i++) {
+                out.write("{\"id\":\"T" + (i + 1) + "\""
+                        + ",\"clienteDni\":\"" + (30_000_000 + i % 50_000) + "\""
+                        + ",\"empleadoId\":\"E" + (i % 8 + 1) + "\""
+                        + ",\"servicioId\":\"S" + (i % 12 + 1) + "\""
+                        + ",\"fechaHora\":\"" + base.plusMinutes(15L * i) + "\""
+                        + ",\"estado\":\"" + estados[i % estados.length] + "\"}");
+                out.newLine();
+            }
+        }
+    }
+
+    // Los dos parsers usan todos los campos, para que ninguno se saltee trabajo
+    private static int leerConSplit(Path archivo) throws IOException {
+        int leidas = 0;
+        long control = 0;
+        try (BufferedReader br = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                Map<String, String> map = parseJsonLine(line);
+                if (map == null) continue;
+
+                control += largo(map.get("id")) + largo(map.get("clienteDni")) + largo(map.get("empleadoId"))
+                        + largo(map.get("servicioId")) + largo(map.get("fechaHora")) + largo(map.get("estado"));
+                leidas++;
+            }
+        }
+        return control > 0 ? leidas : -1;
+    }
+
+    private static int leerConLector(Path archivo) throws IOException {
+        int leidas = 0;
+        long control = 0;
+        try (LectorJson lector = new LectorJson(Files.newBufferedReader(archivo, StandardCharsets.UTF_8))) {
+            RegistroJson r = new RegistroJson();
+            while (r.leer(lector)) {
+                if (!lector.objetoValido()) continue;
+
+                control += largo(r.id) + largo(r.clienteDni) + largo(r.empleadoId)
+                        + largo(r.servicioId) + largo(r.fechaHora) + largo(r.estado);
+                leidas++;
+            }
+        }
+        return control > 0 ? leidas : -1;
+    }
+
+    private static void informar(String nombre, int lineas, long nanos) {
+        double segundos = nanos / 1e9;
+        System.out.printf("%-16s %,d líneas en %.2f s (%,.0f líneas/s)%n",
+                nombre, lineas, segundos, lineas / segundos);
+    }
+
+    private static int largo(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    // ----------------------------------------------------------------
+    // El parser que usaba PersistenciaArchivo antes de LectorJson (sin cambios)
+
+    private static String unquote(String s) {
+        if (s == null) return null;
+        s = s.trim();
+        if (s.equals("null")) return null;
+        if (s.startsWith("\"") && s.endsWith("\"") && s.length() >= 2) {
+            s = s.substring(1, s.length() - 1);
+        }
+        return s.replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+
+    private static Map<String, String> parseJsonLine(String line) {
+        if (!line.startsWith("{") || !line.endsWith("}")) return null;
+        String inner = line.substring(1, line.length() - 1); // sin { }
+        // dividimos por comas principales (no tenemos arrays ni objetos anidados)
+        String[] parts = inner.split(",");
+
+        Map<String, String> map = new HashMap<>();
+        for (String part : parts) {
+            String[] kv = part.split(":", 2);
+            if (kv.length != 2) continue;
+            String key = unquote(kv[0].trim());
+            String val = unquote(kv[1].trim());
+            map.put(key, val);
+        }
+        return map;
+    }
+}
@@ -1,8 +1,24 @@
 package repo;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import model.Barbero;
 import model.Cliente;
 import model.Empleado;
@@ -17,29 +33,187 @@ import services.TurnoService;
 /**
  * Cada línea del archivo es un objeto JSON chiquito, por ej:
  * {"id":"E1","nombre":"Juan","especialidad":"Barbero"}
+ *
+ * <p>Los turnos van en un archivo por mes (ver {@link SegmentosTurnos}).
+ * Un turnos.json de versiones anteriores se lee entero y, en el primer
+ * guardado, se reparte en meses y se borra.</p>
  */
 public class PersistenciaArchivo {
 
-    private static final String DATA_DIR = "data";
+    static final String DATA_DIR = "data";
 
     private static final String CLIENTES_FILE  = DATA_DIR + File.separator + "clientes.json";
     private static final String SERVICIOS_FILE = DATA_DIR + File.separator + "servicios.json";
     private static final String EMPLEADOS_FILE = DATA_DIR + File.separator + "empleados.json";
     private static final String TURNOS_FILE    = DATA_DIR + File.separator + "turnos.json";
 
-    public static void guardarTodo(ClienteService cs,
-                                   ServicioService ss,
-                                   EmpleadoService es,
-                                   TurnoService ts) {
+    // próximo número de ID de servicios y empleados (el de turnos va en turnos/contador.json)
+    private static final String IDS_FILE       = DATA_DIR + File.separator + "ids.json";
+
+    // si existe, se usa en lugar de los .json (ver SnapshotBinario)
+    private static final String SNAPSHOT_FILE  = DATA_DIR + File.separator + "snapshot.bin";
+
+    private static final int HILOS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // por debajo de este tamaño (en caracteres) no vale la pena partir un archivo de turnos
+    private static final int TAMANIO_MIN_TROZO = 1 << 20;
+
+    // Lo más grande que se puede reservar en un arreglo (un poco menos que Integer.MAX_VALUE)
+    private static final int MAXIMO_LECTURA = Integer.MAX_VALUE - 8;
+
+    // Versión de cada service que quedó escrita en disco (-1 = nunca se guardó).
+    // Las actualiza el hilo que guarda, por eso son volatile.
+    private static volatile long versionClientes  = -1;
+    private static volatile long versionServicios = -1;
+    private static volatile long versionEmpleados = -1;
+    private static volatile long versionTurnos    = -1;
+
+    // Lo mismo por cada mes de turnos (un mes que no figura nunca cambió)
+    private static final Map<YearMonth, Long> versionesMeses = new ConcurrentHashMap<>();
+
+    // true mientras los turnos vengan del viejo turnos.json y falte pasarlos a meses
+    private static volatile boolean migrarTurnosJson = false;
+
+    /**
+     * Copia de las listas que hay que guardar, tomada en el hilo del menú para
+     * poder escribirla en otro hilo sin chocar con los cambios que sigan.
+     * Una lista en null significa que ese archivo no cambió.
+     */
+    static final class Foto {
+        private List<Cliente> clientes;
+        private List<Servicio> servicios;
+        private List<Empleado> empleados;
+        private List<Turno> turnos;              // snapshot binario: todos
+        private Map<YearMonth, List<Turno>> meses; // .json: sólo los meses que cambiaron
+        private Map<YearMonth, Long> vMeses;
+        private int proximoTurno;
+        private int proximoServicio;
+        private int proximoEmpleado;
+        private boolean migrar;
+        private long vClientes;
+        private long vServicios;
+        private long vEmpleados;
+        private long vTurnos;
+    }
+
+    public static boolean guardarTodo(ClienteService cs,
+                                      ServicioService ss,
+                                      EmpleadoService es,
+                                      TurnoService ts) {
+        return guardarFoto(tomarFoto(cs, ss, es, ts));
+    }
+
+    static Foto tomarFoto(ClienteService cs,
+                          ServicioService ss,
+                          EmpleadoService es,
+                          TurnoService ts) {
+        Foto f = new Foto();
+        f.vClientes  = cs.getVersion();
+        f.vServicios = ss.getVersion();
+        f.vEmpleados = es.getVersion();
+        f.vTurnos    = ts.getVersion();
+
+        boolean cambioAlgo = f.vClientes != versionClientes || f.vServicios != versionServicios
+                || f.vEmpleados != versionEmpleados || f.vTurnos != versionTurnos;
+        // el snapshot binario es un solo archivo: si cambió algo, va todo
+        boolean todo = cambioAlgo && usaSnapshotBinario();
+
+        // sólo se copian (y después se reescriben) los services que cambiaron
+        if (todo || f.vClientes != versionClientes)   f.clientes  = new ArrayList<>(cs.listarClientes());
+        if (todo || f.vServicios != versionServicios) f.servicios = new ArrayList<>(ss.listarServicios());
+        if (todo || f.vEmpleados != versionEmpleados) f.empleados = new ArrayList<>(es.listarEmpleados());
+        f.proximoServicio = ss.getProximoNumeroServicio();
+        f.proximoEmpleado = es.getProximoNumeroEmpleado();
+        if (todo) {
+            f.turnos = new ArrayList<>(ts.listarTurnos());
+        } else if (!usaSnapshotBinario() && (f.vTurnos != versionTurnos || migrarTurnosJson)) {
+            tomarMesesModificados(f, ts);
+        }
+        return f;
+    }
+
+    // Agrupa por mes los turnos en memoria, quedándose sólo con los meses que cambiaron
+    private static void tomarMesesModificados(Foto f, TurnoService ts) {
+        f.migrar = migrarTurnosJson;
+        f.meses = new TreeMap<>();
+        f.vMeses = new HashMap<>();
+        f.proximoTurno = ts.getProximoNumeroTurno();
+
+        // las versiones antes que el listado (como en tomarFoto): un turno que entre
+        // en el medio queda con una versión que todavía no lo cuenta y su mes se
+        // vuelve a escribir en el próximo guardado, en vez de darse por guardado
+        Map<YearMonth, Long> versiones = ts.getVersionesMeses();
+
+        Set<YearMonth> sinCambios = new HashSet<>();
+        for (Turno t : ts.listarTurnosCargados()) {
+            YearMonth mes = YearMonth.from(t.getFechaHora());
+            List<Turno> lista = f.meses.get(mes);
+            if (lista == null) {
+                if (sinCambios.contains(mes)) continue;
+
+                long v = versiones.getOrDefault(mes, 0L);
+                if (!f.migrar && v == versionesMeses.getOrDefault(mes, 0L)) {
+                    sinCambios.add(mes);
+                    continue;
+                }
+                lista = new ArrayList<>();
+                f.meses.put(mes, lista);
+                f.vMeses.put(mes, v);
+            }
+            lista.add(t);
+        }
+    }
+
+    static boolean guardarFoto(Foto f) {
         asegurarDirectorio();
 
         try {
-            guardarClientes(cs, CLIENTES_FILE);
-            guardarServicios(ss, SERVICIOS_FILE);
-            guardarEmpleados(es, EMPLEADOS_FILE);
-            guardarTurnos(ts, TURNOS_FILE);
+            if (usaSnapshotBinario()) {
+                if (f.clientes != null) {
+                    SnapshotBinario.guardar(snapshotPath(), f.clientes, f.servicios, f.empleados, f.turnos);
+                }
+            } else {
+                if (f.clientes != null)  guardarClientes(f.clientes, CLIENTES_FILE);
+                if (f.servicios != null) guardarServicios(f.servicios, SERVICIOS_FILE);
+                if (f.empleados != null) guardarEmpleados(f.empleados, EMPLEADOS_FILE);
+                if (f.meses != null)     guardarMeses(f);
+            }
+            if (f.servicios != null || f.empleados != null) guardarIds(f.proximoServicio, f.proximoEmpleado);
+            // un solo fsync del directorio confirma todos los renombres de esta foto
+            if (f.clientes != null || f.servicios != null || f.empleados != null || f.turnos != null) {
+                forzarDirectorio(Path.of(DATA_DIR));
+            }
+            versionClientes  = f.vClientes;
+            versionServicios = f.vServicios;
+            versionEmpleados = f.vEmpleados;
+            versionTurnos    = f.vTurnos;
+            if (f.meses != null) {
+                versionesMeses.putAll(f.vMeses);
+                if (f.migrar) migrarTurnosJson = false;
+            }
+            return true;
         } catch (IOException e) {
             System.out.println("Error guardando datos en archivos: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void guardarMeses(Foto f) throws IOException {
+        if (f.meses.isEmpty() && !f.migrar) return;
+
+        SegmentosTurnos.asegurarDirectorio();
+        // el contador antes que los meses: si se corta en el medio queda adelantado
+        // (se saltean números), nunca por debajo de un ID ya guardado
+        SegmentosTurnos.guardarContador(f.proximoTurno);
+        for (Map.Entry<YearMonth, List<Turno>> mes : f.meses.entrySet()) {
+            SegmentosTurnos.guardarMes(mes.getKey(), mes.getValue());
+        }
+        forzarDirectorio(Path.of(SegmentosTurnos.TURNOS_DIR));
+
+        // recién con todos los meses escritos se puede borrar el archivo viejo
+        if (f.migrar) {
+            Files.deleteIfExists(Path.of(TURNOS_FILE));
+            forzarDirectorio(Path.of(DATA_DIR));
         }
     }
 
@@ -50,247 +224,469 @@ public class PersistenciaArchivo {
         asegurarDirectorio();
 
         try {
-            cargarClientes(cs, CLIENTES_FILE);
-            cargarServicios(ss, SERVICIOS_FILE);
-            cargarEmpleados(es, EMPLEADOS_FILE);
-            cargarTurnos(ts, cs, ss, es, TURNOS_FILE);
+            if (usaSnapshotBinario()) {
+                SnapshotBinario.cargar(snapshotPath(), cs, ss, es, ts);
+            } else {
+                cargarJson(cs, ss, es, ts);
+            }
+            cargarIds(ss, es);
+
+            // lo recién cargado ya coincide con lo que hay en disco
+            versionClientes  = cs.getVersion();
+            versionServicios = ss.getVersion();
+            versionEmpleados = es.getVersion();
+            versionTurnos    = ts.getVersion();
         } catch (IOException e) {
             System.out.println("Error cargando datos desde archivos: " + e.getMessage());
         }
     }
 
-    private static void guardarClientes(ClienteService cs, String path) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
-            for (Cliente c : cs.listarClientes()) {
-                String json = "{"
-                        + "\"id\":" + quote(c.getId())
-                        + ",\"nombre\":" + quote(c.getNombre())
-                        + ",\"apellido\":" + quote(c.getApellido())
-                        + ",\"dni\":" + quote(c.getDni())
-                        + ",\"telefono\":" + quote(c.getTelefono())
-                        + "}";
-                pw.println(json);
+    static Path snapshotPath() {
+        return Path.of(SNAPSHOT_FILE);
+    }
+
+    private static boolean usaSnapshotBinario() {
+        return Files.exists(snapshotPath());
+    }
+
+    // Escribe todos los .json completos (para convertir desde el binario)
+    static void guardarJson(ClienteService cs,
+                            ServicioService ss,
+                            EmpleadoService es,
+                            TurnoService ts) throws IOException {
+        asegurarDirectorio();
+        guardarClientes(cs.listarClientes(), CLIENTES_FILE);
+        guardarServicios(ss.listarServicios(), SERVICIOS_FILE);
+        guardarEmpleados(es.listarEmpleados(), EMPLEADOS_FILE);
+
+        Foto f = new Foto();
+        f.migrar = true;
+        f.meses = new TreeMap<>();
+        f.proximoTurno = ts.getProximoNumeroTurno();
+        for (Turno t : ts.listarTurnos()) {
+            f.meses.computeIfAbsent(YearMonth.from(t.getFechaHora()), m -> new ArrayList<>()).add(t);
+        }
+        // meses que quedaron de antes y ya no tienen turnos
+        for (YearMonth mes : SegmentosTurnos.meses()) {
+            if (!f.meses.containsKey(mes)) SegmentosTurnos.borrarMes(mes);
+        }
+        guardarMeses(f);
+    }
+
+    static void cargarJson(ClienteService cs,
+                           ServicioService ss,
+                           EmpleadoService es,
+                           TurnoService ts) throws IOException {
+        boolean legado = new File(TURNOS_FILE).exists();
+
+        // sin contador guardado no se sabe el último ID del historial: se carga todo
+        List<YearMonth> activos = new ArrayList<>();
+        List<YearMonth> historial = new ArrayList<>();
+        int proximoTurno = -1;
+        if (!legado) {
+            proximoTurno = SegmentosTurnos.leerContador();
+            for (YearMonth mes : SegmentosTurnos.meses()) {
+                if (proximoTurno < 0 || SegmentosTurnos.esActivo(mes)) activos.add(mes);
+                else historial.add(mes);
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        try {
+            // clientes, servicios y empleados no dependen entre sí: se leen a la vez,
+            // y mientras tanto se van leyendo del disco los turnos
+            Future<?> clientes  = pool.submit(() -> { cargarClientes(cs, CLIENTES_FILE); return null; });
+            Future<?> servicios = pool.submit(() -> { cargarServicios(ss, SERVICIOS_FILE); return null; });
+            Future<?> empleados = pool.submit(() -> { cargarEmpleados(es, EMPLEADOS_FILE); return null; });
+
+            List<Future<CharBuffer>> textos = new ArrayList<>();
+            if (legado) {
+                textos.add(pool.submit(() -> leerTexto(TURNOS_FILE)));
+            } else {
+                for (YearMonth mes : activos) {
+                    textos.add(pool.submit(() -> leerTexto(SegmentosTurnos.archivo(mes).toString())));
+                }
+            }
+
+            esperar(clientes);
+            esperar(servicios);
+            esperar(empleados);
+
+            List<Future<List<Turno>>> trozos = new ArrayList<>();
+            for (Future<CharBuffer> texto : textos) {
+                trozos.addAll(parsearTurnos(esperar(texto), cs, ss, es, pool));
             }
+            List<Turno> leidos = new ArrayList<>();
+            for (Future<List<Turno>> trozo : trozos) {
+                leidos.addAll(esperar(trozo));
+            }
+            // con contador guardado los IDs no hace falta revisarlos: se ajusta abajo
+            ts.restaurarTurnos(leidos, proximoTurno < 0);
+        } finally {
+            pool.shutdown();
+        }
+
+        if (legado) {
+            migrarTurnosJson = true;
+            return;
+        }
+        ts.ajustarProximoNumeroTurno(proximoTurno);
+        ts.setHistorial(new SegmentosTurnos(cs, ss, es), historial);
+
+        // los meses recién leídos ya coinciden con su archivo
+        versionesMeses.clear();
+        for (YearMonth mes : activos) {
+            versionesMeses.put(mes, ts.getVersionMes(mes));
         }
     }
 
-    private static void cargarClientes(ClienteService cs, String path) throws IOException {
-        File f = new File(path);
-        if (!f.exists()) return;
+    // {"servicios":5,"empleados":4}
+    private static void guardarIds(int proximoServicio, int proximoEmpleado) throws IOException {
+        escribirAtomico(Path.of(IDS_FILE), out -> {
+            out.write(("{\"servicios\":" + proximoServicio + ",\"empleados\":" + proximoEmpleado + "}"
+                    + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    // Sin ids.json (datos de una versión anterior) quedan los números que salen de los IDs cargados
+    private static void cargarIds(ServicioService ss, EmpleadoService es) throws IOException {
+        CharBuffer texto = leerTexto(IDS_FILE);
+        if (texto == null) return;
+
+        try (LectorJson lector = nuevoLector(texto)) {
+            if (!lector.siguienteObjeto()) return;
+            int proximoServicio = 0;
+            int proximoEmpleado = 0;
+            while (lector.siguienteCampo()) {
+                if (lector.esClave("servicios")) proximoServicio = lector.entero();
+                else if (lector.esClave("empleados")) proximoEmpleado = lector.entero();
+                else lector.saltarValor();
+            }
+            if (!lector.objetoValido()) return;
+
+            ss.ajustarProximoNumeroServicio(proximoServicio);
+            es.ajustarProximoNumeroEmpleado(proximoEmpleado);
+        }
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+    private static void guardarClientes(List<Cliente> lista, String path) throws IOException {
+        escribirAtomico(Path.of(path), out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (Cliente c : lista) {
+                w.write(jsonCliente(c));
+                w.write(System.lineSeparator());
+            }
+            w.flush();
+        });
+    }
 
-                Map<String, String> map = parseJsonLine(line);
-                if (map == null) continue;
+    private static void cargarClientes(ClienteService cs, String path) throws IOException {
+        CharBuffer texto = leerTexto(path);
+        if (texto == null) return;
 
-                String id       = nullIfLiteralNull(map.get("id"));
-                String nombre   = map.get("nombre");
-                String apellido = map.get("apellido");
-                String dni      = map.get("dni");
-                String tel      = map.get("telefono");
+        try (LectorJson lector = nuevoLector(texto)) {
+            RegistroJson r = new RegistroJson();
+            while (r.leer(lector)) {
+                if (!lector.objetoValido()) continue;
 
-                Cliente c = new Cliente(id, nombre, apellido, dni, tel);
+                Cliente c = new Cliente(nullIfLiteralNull(r.id), r.nombre, r.apellido, r.dni, r.telefono);
                 try {
                     cs.agregarCliente(c);
-                } catch (IllegalArgumentException ignore) {
-                    // si está duplicado por DNI, lo ignoramos
+                } catch (RuntimeException ignore) {
+                    // si está duplicado por DNI (o incompleto), lo ignoramos
                 }
             }
         }
     }
 
-    private static void guardarServicios(ServicioService ss, String path) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
-            for (Servicio s : ss.listarServicios()) {
-                String json = "{"
-                        + "\"id\":" + quote(s.getId())
-                        + ",\"nombre\":" + quote(s.getNombre())
-                        + ",\"precioBase\":" + s.getPrecioBase()
-                        + ",\"duracionMinutos\":" + s.getDuracionMinutos()
-                        + "}";
-                pw.println(json);
+    private static void guardarServicios(List<Servicio> lista, String path) throws IOException {
+        escribirAtomico(Path.of(path), out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (Servicio s : lista) {
+                w.write(jsonServicio(s));
+                w.write(System.lineSeparator());
             }
-        }
+            w.flush();
+        });
     }
 
     private static void cargarServicios(ServicioService ss, String path) throws IOException {
-        File f = new File(path);
-        if (!f.exists()) return;
+        CharBuffer texto = leerTexto(path);
+        if (texto == null) return;
 
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+        try (LectorJson lector = nuevoLector(texto)) {
+            RegistroJson r = new RegistroJson();
+            while (r.leer(lector)) {
+                if (!lector.objetoValido()) continue;
 
-                Map<String, String> map = parseJsonLine(line);
-                if (map == null) continue;
-
-                String id     = nullIfLiteralNull(map.get("id"));
-                String nombre = map.get("nombre");
-                double precio = Double.parseDouble(map.get("precioBase"));
-                int duracion  = Integer.parseInt(map.get("duracionMinutos"));
-
-                Servicio s = new Servicio(id, nombre, precio, duracion);
+                Servicio s = new Servicio(nullIfLiteralNull(r.id), r.nombre, r.precioBase, r.duracionMinutos);
                 try {
                     ss.agregarServicio(s);
-                } catch (IllegalArgumentException ignore) {
-                    // si está duplicado, ignoramos
+                } catch (RuntimeException ignore) {
+                    // si está duplicado o es inválido, ignoramos
                 }
             }
         }
     }
 
-    private static void guardarEmpleados(EmpleadoService es, String path) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
-            for (Empleado e : es.listarEmpleados()) {
-                // inferimos tipo desde la clase concreta
-                String tipo;
-                if (e instanceof Barbero) tipo = "Barbero";
-                else if (e instanceof Estilista) tipo = "Estilista";
-                else tipo = e.getEspecialidad();
-
-                String json = "{"
-                        + "\"id\":" + quote(e.getId())
-                        + ",\"nombre\":" + quote(e.getNombre())
-                        + ",\"tipo\":" + quote(tipo)
-                        + "}";
-                pw.println(json);
+    private static void guardarEmpleados(List<Empleado> lista, String path) throws IOException {
+        escribirAtomico(Path.of(path), out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (Empleado e : lista) {
+                w.write(jsonEmpleado(e));
+                w.write(System.lineSeparator());
             }
-        }
+            w.flush();
+        });
     }
 
     private static void cargarEmpleados(EmpleadoService es, String path) throws IOException {
-        File f = new File(path);
-        if (!f.exists()) return;
+        CharBuffer texto = leerTexto(path);
+        if (texto == null) return;
 
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                Map<String, String> map = parseJsonLine(line);
-                if (map == null) continue;
-
-                String id    = map.get("id");
-                String nombre = map.get("nombre");
-                String tipo   = map.get("tipo");
+        try (LectorJson lector = nuevoLector(texto)) {
+            RegistroJson r = new RegistroJson();
+            while (r.leer(lector)) {
+                if (!lector.objetoValido()) continue;
 
                 try {
-                    es.crearEmpleado(id, nombre, tipo);
-                } catch (IllegalArgumentException ignore) {
-                    // duplicados -> ignoramos
+                    es.crearEmpleado(r.id, r.nombre, r.tipo);
+                } catch (RuntimeException ignore) {
+                    // duplicados o datos inválidos -> ignoramos
                 }
             }
         }
     }
 
-    private static void guardarTurnos(TurnoService ts, String path) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
-            for (Turno t : ts.listarTurnos()) {
-                String json = "{"
-                        + "\"id\":" + quote(t.getId())
-                        + ",\"clienteDni\":" + quote(t.getCliente().getDni())
-                        + ",\"empleadoId\":" + quote(t.getEmpleado().getId())
-                        + ",\"servicioId\":" + quote(t.getServicio().getId())
-                        + ",\"fechaHora\":" + quote(t.getFechaHora().toString())
-                        + ",\"estado\":" + quote(t.getEstado().name())
-                        + "}";
-                pw.println(json);
-            }
+    // Parte el texto en trozos (cortados en fin de línea) que se parsean y resuelven en paralelo
+    private static List<Future<List<Turno>>> parsearTurnos(CharBuffer texto,
+                                                           ClienteService cs,
+                                                           ServicioService ss,
+                                                           EmpleadoService es,
+                                                           ExecutorService pool) {
+        List<Future<List<Turno>>> trozos = new ArrayList<>();
+        if (texto == null) return trozos;
+
+        char[] datos = texto.array();
+        for (int[] trozo : partirEnLineas(datos, texto.arrayOffset() + texto.position(),
+                texto.arrayOffset() + texto.limit())) {
+            trozos.add(pool.submit(() -> leerTurnos(datos, trozo[0], trozo[1], cs, ss, es)));
         }
+        return trozos;
     }
 
-    private static void cargarTurnos(TurnoService ts,
-                                     ClienteService cs,
-                                     ServicioService ss,
-                                     EmpleadoService es,
-                                     String path) throws IOException {
-        File f = new File(path);
-        if (!f.exists()) return;
+    static List<Turno> leerTurnos(char[] datos, int desde, int hasta,
+                                          ClienteService cs,
+                                          ServicioService ss,
+                                          EmpleadoService es) throws IOException {
+        List<Turno> leidos = new ArrayList<>();
+        LectorJson lector = new LectorJson(datos, desde, hasta);
+        RegistroJson r = new RegistroJson();
+        while (r.leer(lector)) {
+            if (!lector.objetoValido() || r.sello != null) continue;
+
+            Turno t = resolverTurno(r, cs, ss, es);
+            if (t != null) leidos.add(t);
+        }
+        return leidos;
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+    // Parte [desde, hasta) en tramos de tamaño parecido que terminan en '\n'
+    private static List<int[]> partirEnLineas(char[] datos, int desde, int hasta) {
+        List<int[]> trozos = new ArrayList<>();
+        int cantidad = Math.max(1, Math.min(HILOS, (hasta - desde) / TAMANIO_MIN_TROZO));
+        int largo = (hasta - desde) / cantidad;
+
+        int inicio = desde;
+        for (int i = 1; i < cantidad && inicio < hasta; i++) {
+            int fin = Math.max(inicio, desde + i * largo);
+            while (fin < hasta && datos[fin] != '\n') fin++;
+            if (fin < hasta) fin++;
+            trozos.add(new int[] { inicio, fin });
+            inicio = fin;
+        }
+        if (inicio < hasta) trozos.add(new int[] { inicio, hasta });
+        return trozos;
+    }
 
-                Map<String, String> map = parseJsonLine(line);
-                if (map == null) continue;
+    // Arma el turno con sus referencias resueltas; null si algo no existe
+    private static Turno resolverTurno(RegistroJson r,
+                                       ClienteService cs,
+                                       ServicioService ss,
+                                       EmpleadoService es) {
+        try {
+            Cliente cliente = cs.buscarPorDni(r.clienteDni);
+            Servicio servicio = ss.buscarPorId(r.servicioId);
+            Empleado empleado = es.buscarPorId(r.empleadoId);
+            LocalDateTime fechaHora = LocalDateTime.parse(r.fechaHora);
+            return new Turno(r.id, cliente, empleado, servicio, fechaHora, estado(r.estado));
+        } catch (Exception ex) {
+            // si algo no existe (o la fecha está mal), salteamos ese turno
+            return null;
+        }
+    }
 
-                String id          = map.get("id");
-                String clienteDni  = map.get("clienteDni");
-                String empleadoId  = map.get("empleadoId");
-                String servicioId  = map.get("servicioId");
-                String fechaStr    = map.get("fechaHora");
-                String estadoStr   = map.get("estado");
+    private static Turno.Estado estado(String estadoStr) {
+        if ("REALIZADO".equalsIgnoreCase(estadoStr)) return Turno.Estado.REALIZADO;
+        if ("CANCELADO".equalsIgnoreCase(estadoStr)) return Turno.Estado.CANCELADO;
+        return Turno.Estado.PENDIENTE;
+    }
 
-                Cliente cliente;
-                Servicio servicio;
-                Empleado empleado;
+    // Rearma un turno del journal con el estado que tenía
+    static void restaurarTurno(RegistroJson r,
+                               TurnoService ts,
+                               ClienteService cs,
+                               ServicioService ss,
+                               EmpleadoService es) {
+        Turno t = resolverTurno(r, cs, ss, es);
+        if (t != null) {
+            ts.restaurarTurnos(List.of(t));
+        }
+    }
 
-                try {
-                    cliente = cs.buscarPorDni(clienteDni);
-                    servicio = ss.buscarPorId(servicioId);
-                    empleado = es.buscarPorId(empleadoId);
-                } catch (Exception ex) {
-                    // si algo no existe, salteamos ese turno
-                    continue;
-                }
+    static String jsonCliente(Cliente c) {
+        return "{"
+                + "\"id\":" + quote(c.getId())
+                + ",\"nombre\":" + quote(c.getNombre())
+                + ",\"apellido\":" + quote(c.getApellido())
+                + ",\"dni\":" + quote(c.getDni())
+                + ",\"telefono\":" + quote(c.getTelefono())
+                + "}";
+    }
 
-                LocalDateTime fechaHora = LocalDateTime.parse(fechaStr);
+    static String jsonServicio(Servicio s) {
+        return "{"
+                + "\"id\":" + quote(s.getId())
+                + ",\"nombre\":" + quote(s.getNombre())
+                + ",\"precioBase\":" + s.getPrecioBase()
+                + ",\"duracionMinutos\":" + s.getDuracionMinutos()
+                + "}";
+    }
 
-                ts.registrarTurno(id, cliente, empleado, servicio, fechaHora);
+    static String jsonEmpleado(Empleado e) {
+        // inferimos tipo desde la clase concreta
+        String tipo;
+        if (e instanceof Barbero) tipo = "Barbero";
+        else if (e instanceof Estilista) tipo = "Estilista";
+        else tipo = e.getEspecialidad();
+
+        return "{"
+                + "\"id\":" + quote(e.getId())
+                + ",\"nombre\":" + quote(e.getNombre())
+                + ",\"tipo\":" + quote(tipo)
+                + "}";
+    }
 
-                // Ajustar estado
-                Turno t = ts.buscarPorId(id);
-                if (t != null) {
-                    if ("REALIZADO".equalsIgnoreCase(estadoStr)) {
-                        t.realizar();
-                    } else if ("CANCELADO".equalsIgnoreCase(estadoStr)) {
-                        t.cancelar();
-                    }
+    static String jsonTurno(Turno t) {
+        return "{"
+                + "\"id\":" + quote(t.getId())
+                + ",\"clienteDni\":" + quote(t.getCliente().getDni())
+                + ",\"empleadoId\":" + quote(t.getEmpleado().getId())
+                + ",\"servicioId\":" + quote(t.getServicio().getId())
+                + ",\"fechaHora\":" + quote(t.getFechaHora().toString())
+                + ",\"estado\":" + quote(t.getEstado().name())
+                + "}";
+    }
+
+    static String quote(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (ch < 0x20) sb.append(String.format("\\u%04x", (int) ch));
+                    else sb.append(ch);
                 }
             }
         }
+        return sb.append('"').toString();
     }
 
-    private static String quote(String s) {
-        if (s == null) return "null";
-        String esc = s.replace("\\", "\\\\").replace("\"", "\\\"");
-        return "\"" + esc + "\"";
+    // Lee el archivo entero por NIO y lo decodifica; null si no existe
+    static CharBuffer leerTexto(String path) throws IOException {
+        File f = new File(path);
+        if (!f.exists()) return null;
+
+        try (FileChannel ch = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            long tamanio = ch.size();
+            // el texto se devuelve en un solo arreglo: no puede pasar de 2 GB
+            if (tamanio > MAXIMO_LECTURA) {
+                throw new IOException(path + " es demasiado grande para leerlo entero ("
+                        + tamanio + " bytes).");
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((int) tamanio);
+            while (bytes.hasRemaining() && ch.read(bytes) >= 0) { }
+            bytes.flip();
+            return StandardCharsets.UTF_8.decode(bytes);
+        }
     }
 
-    private static String unquote(String s) {
-        if (s == null) return null;
-        s = s.trim();
-        if (s.equals("null")) return null;
-        if (s.startsWith("\"") && s.endsWith("\"") && s.length() >= 2) {
-            s = s.substring(1, s.length() - 1);
+    interface Escritura {
+        void escribir(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Escribe primero en un archivo .tmp, lo fuerza a disco y recién ahí lo
+     * renombra sobre el original: si se corta a mitad, el archivo anterior
+     * queda entero. (El viejo FileWriter truncaba el original antes de escribir.)
+     */
+    static void escribirAtomico(Path destino, Escritura escritura) throws IOException {
+        long inicio = System.nanoTime();
+        Path tmp = destino.resolveSibling(destino.getFileName() + ".tmp");
+
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // no se cierra el stream: cerraría el canal antes del force
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(ch), 64 * 1024);
+            escritura.escribir(out);
+            out.flush();
+            ch.force(true);
+            EstadisticasPersistencia.registrarFsync();
+        }
+
+        try {
+            Files.move(tmp, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, destino, StandardCopyOption.REPLACE_EXISTING);
         }
-        return s.replace("\\\"", "\"").replace("\\\\", "\\");
-    }
-
-    private static Map<String, String> parseJsonLine(String line) {
-        if (!line.startsWith("{") || !line.endsWith("}")) return null;
-        String inner = line.substring(1, line.length() - 1); // sin { }
-        // dividimos por comas principales (no tenemos arrays ni objetos anidados)
-        String[] parts = inner.split(",");
-
-        Map<String, String> map = new HashMap<>();
-        for (String part : parts) {
-            String[] kv = part.split(":", 2);
-            if (kv.length != 2) continue;
-            String key = unquote(kv[0].trim());
-            String val = unquote(kv[1].trim());
-            map.put(key, val);
+        EstadisticasPersistencia.registrarGuardado(System.nanoTime() - inicio);
+    }
+
+    // Para que los renombres sobrevivan a un corte hay que forzar también el directorio
+    private static void forzarDirectorio(Path directorio) {
+        try (FileChannel dir = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            dir.force(true);
+            EstadisticasPersistencia.registrarFsync();
+        } catch (IOException e) {
+            // en algunos sistemas (ej. Windows) no se puede abrir un directorio así
+        }
+    }
+
+    static LectorJson nuevoLector(CharBuffer texto) {
+        return new LectorJson(texto.array(),
+                texto.arrayOffset() + texto.position(),
+                texto.arrayOffset() + texto.limit());
+    }
+
+    private static <T> T esperar(Future<T> tarea) throws IOException {
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga interrumpida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) throw io;
+            if (causa instanceof RuntimeException re) throw re;
+            throw new IOException(causa);
         }
-        return map;
     }
 
     private static String nullIfLiteralNull(String s) {
@@ -300,7 +696,7 @@ public class PersistenciaArchivo {
         return s;
     }
 
-    private static void asegurarDirectorio() {
+    static void asegurarDirectorio() {
         File dir = new File(DATA_DIR);
         if (!dir.exists()) {
             dir.mkdirs();
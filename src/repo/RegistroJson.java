@@ -0,0 +1,80 @@
+package repo;
+
+import java.io.IOException;
+
+/**
+ * Campos de una línea de los archivos de datos (o del journal), ya leídos con
+ * su tipo. Se reutiliza la misma instancia para todas las líneas de un archivo.
+ */
+final class RegistroJson {
+
+    // sólo en el journal
+    String op;
+    String entidad;
+
+    // sólo en la primera línea de un mes de turnos (ver SegmentosTurnos)
+    String sello;
+
+    String id;
+    String nombre;
+    String apellido;
+    String dni;
+    String telefono;
+    double precioBase;
+    int duracionMinutos;
+    String tipo;
+    String clienteDni;
+    String empleadoId;
+    String servicioId;
+    String fechaHora;
+    String estado;
+
+    /**
+     * Lee el próximo objeto del lector. Devuelve false al final del archivo;
+     * si la línea estaba mal formada, {@link LectorJson#objetoValido()} da false.
+     */
+    boolean leer(LectorJson lector) throws IOException {
+        if (!lector.siguienteObjeto()) return false;
+        limpiar();
+
+        while (lector.siguienteCampo()) {
+            if (lector.esClave("id")) id = lector.texto();
+            else if (lector.esClave("nombre")) nombre = lector.texto();
+            else if (lector.esClave("apellido")) apellido = lector.texto();
+            else if (lector.esClave("dni")) dni = lector.texto();
+            else if (lector.esClave("telefono")) telefono = lector.texto();
+            else if (lector.esClave("precioBase")) precioBase = lector.decimal();
+            else if (lector.esClave("duracionMinutos")) duracionMinutos = lector.entero();
+            else if (lector.esClave("tipo")) tipo = lector.texto();
+            else if (lector.esClave("clienteDni")) clienteDni = lector.texto();
+            else if (lector.esClave("empleadoId")) empleadoId = lector.texto();
+            else if (lector.esClave("servicioId")) servicioId = lector.texto();
+            else if (lector.esClave("fechaHora")) fechaHora = lector.texto();
+            else if (lector.esClave("estado")) estado = lector.texto();
+            else if (lector.esClave("op")) op = lector.texto();
+            else if (lector.esClave("entidad")) entidad = lector.texto();
+            else if (lector.esClave("sello")) sello = lector.texto();
+            else lector.saltarValor();
+        }
+        return true;
+    }
+
+    private void limpiar() {
+        op = null;
+        entidad = null;
+        sello = null;
+        id = null;
+        nombre = null;
+        apellido = null;
+        dni = null;
+        telefono = null;
+        precioBase = 0;
+        duracionMinutos = 0;
+        tipo = null;
+        clienteDni = null;
+        empleadoId = null;
+        servicioId = null;
+        fechaHora = null;
+        estado = null;
+    }
+}
@@ -0,0 +1,245 @@
+package repo;
+
+import java.io.*;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import model.Turno;
+import services.ClienteService;
+import services.EmpleadoService;
+import services.HistorialTurnos;
+import services.ResumenMes;
+import services.ServicioService;
+
+/**
+ * Turnos guardados en un archivo por mes: data/turnos/2025-03.json, con el
+ * mismo formato de línea que el viejo turnos.json.
+ *
+ * <p>Al iniciar sólo se leen los meses activos (el anterior, el actual y los
+ * que vienen); el resto queda como historial y se lee cuando una consulta lo
+ * pide. Como el historial puede no estar en memoria, el número del próximo
+ * turno se guarda aparte, en data/turnos/contador.json.</p>
+ *
+ * <p>Junto a cada mes va su resumen (data/turnos/2025-03.resumen): cuántos
+ * turnos tiene ahí cada cliente, empleado y servicio. Con eso se sabe si algo
+ * tiene turnos en el historial, y en qué meses, sin leerlos. Cada vez que se
+ * escribe un mes se le pone en la primera línea un sello nuevo,
+ * {"sello":"..."}, y el resumen arranca con el mismo sello: si no coinciden
+ * (se cortó entre el mes y su resumen) el resumen no se usa. No se compara
+ * la fecha de modificación, que en algunos sistemas de archivos es la misma
+ * para los dos.</p>
+ */
+class SegmentosTurnos implements HistorialTurnos {
+
+    static final String TURNOS_DIR = PersistenciaArchivo.DATA_DIR + File.separator + "turnos";
+
+    private static final String CONTADOR_FILE = TURNOS_DIR + File.separator + "contador.json";
+
+    // además del mes actual (y los futuros), cuántos meses hacia atrás se cargan al iniciar
+    private static final int MESES_ATRAS_ACTIVOS = 1;
+
+    private final ClienteService cs;
+    private final ServicioService ss;
+    private final EmpleadoService es;
+
+    SegmentosTurnos(ClienteService cs, ServicioService ss, EmpleadoService es) {
+        this.cs = cs;
+        this.ss = ss;
+        this.es = es;
+    }
+
+    @Override
+    public List<Turno> cargarMes(YearMonth mes) {
+        try {
+            CharBuffer texto = PersistenciaArchivo.leerTexto(archivo(mes).toString());
+            if (texto == null) return List.of();
+
+            List<Turno> turnos = PersistenciaArchivo.leerTurnos(texto.array(),
+                    texto.arrayOffset() + texto.position(),
+                    texto.arrayOffset() + texto.limit(), cs, ss, es);
+            // resumen faltante o dañado: se arma ahora, ya que se leyó (sólo si el mes
+            // tiene sello; uno sin sello recibe el suyo la próxima vez que se guarde)
+            String sello = sello(PersistenciaArchivo.nuevoLector(texto));
+            if (sello != null && resumenMes(mes) == null) {
+                try {
+                    guardarResumen(mes, sello, ResumenMes.de(turnos));
+                } catch (IOException ignore) {
+                    // sin resumen se sigue leyendo el mes cuando haga falta
+                }
+            }
+            return turnos;
+        } catch (IOException e) {
+            // no se marca como cargado: si se guardara vacío se perdería el mes
+            throw new UncheckedIOException("Error leyendo los turnos de " + mes, e);
+        }
+    }
+
+    @Override
+    public ResumenMes resumenMes(YearMonth mes) {
+        try {
+            Path resumen = archivoResumen(mes);
+            if (!Files.exists(resumen)) return null;
+
+            CharBuffer texto = PersistenciaArchivo.leerTexto(resumen.toString());
+            if (texto == null) return null;
+
+            ResumenMes r = new ResumenMes();
+            try (LectorJson lector = PersistenciaArchivo.nuevoLector(texto)) {
+                // el resumen es del mes que está en disco sólo si tienen el mismo sello
+                String sello = sello(lector);
+                if (sello == null || !sello.equals(selloDelMes(mes))) return null;
+
+                while (lector.siguienteObjeto()) {
+                    String tipo = null;
+                    String clave = null;
+                    int turnos = 0;
+                    int pendientes = 0;
+                    while (lector.siguienteCampo()) {
+                        if (lector.esClave("tipo")) tipo = lector.texto();
+                        else if (lector.esClave("clave")) clave = lector.texto();
+                        else if (lector.esClave("turnos")) turnos = lector.entero();
+                        else if (lector.esClave("pendientes")) pendientes = lector.entero();
+                        else lector.saltarValor();
+                    }
+                    // una línea dañada invalida el resumen entero: mejor leer el mes
+                    if (!lector.objetoValido() || tipo == null || clave == null) return null;
+                    r.sumar(ResumenMes.Tipo.valueOf(tipo), clave, turnos, pendientes);
+                }
+            }
+            return r;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static boolean esActivo(YearMonth mes) {
+        return !mes.isBefore(YearMonth.now().minusMonths(MESES_ATRAS_ACTIVOS));
+    }
+
+    // Meses que tienen archivo, en orden
+    static List<YearMonth> meses() throws IOException {
+        List<YearMonth> meses = new ArrayList<>();
+        Path dir = Path.of(TURNOS_DIR);
+        if (!Files.isDirectory(dir)) return meses;
+
+        try (Stream<Path> archivos = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) archivos::iterator) {
+                String nombre = p.getFileName().toString();
+                if (!nombre.endsWith(".json")) continue;
+                try {
+                    meses.add(YearMonth.parse(nombre.substring(0, nombre.length() - 5)));
+                } catch (DateTimeParseException ignore) {
+                    // contador.json u otro archivo que no es un mes
+                }
+            }
+        }
+        meses.sort(null);
+        return meses;
+    }
+
+    static Path archivo(YearMonth mes) {
+        return Path.of(TURNOS_DIR, mes + ".json");
+    }
+
+    // sin .json: meses() no lo toma como un mes
+    static Path archivoResumen(YearMonth mes) {
+        return Path.of(TURNOS_DIR, mes + ".resumen");
+    }
+
+    static void guardarMes(YearMonth mes, List<Turno> lista) throws IOException {
+        String sello = UUID.randomUUID().toString();
+        PersistenciaArchivo.escribirAtomico(archivo(mes), out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            w.write(lineaSello(sello));
+            for (Turno t : lista) {
+                w.write(PersistenciaArchivo.jsonTurno(t));
+                w.write(System.lineSeparator());
+            }
+            w.flush();
+        });
+        guardarResumen(mes, sello, ResumenMes.de(lista));
+    }
+
+    private static void guardarResumen(YearMonth mes, String sello, ResumenMes resumen) throws IOException {
+        PersistenciaArchivo.escribirAtomico(archivoResumen(mes), out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            w.write(lineaSello(sello));
+            resumen.<IOException>recorrer((tipo, clave, turnos, pendientes) -> {
+                w.write("{\"tipo\":" + PersistenciaArchivo.quote(tipo.name())
+                        + ",\"clave\":" + PersistenciaArchivo.quote(clave)
+                        + ",\"turnos\":" + turnos
+                        + ",\"pendientes\":" + pendientes + "}");
+                w.write(System.lineSeparator());
+            });
+            w.flush();
+        });
+    }
+
+    private static String lineaSello(String sello) {
+        return "{\"sello\":" + PersistenciaArchivo.quote(sello) + "}" + System.lineSeparator();
+    }
+
+    // Sello de la primera línea (lee sólo esa, no el mes entero); null si no tiene
+    private static String selloDelMes(YearMonth mes) throws IOException {
+        Path archivo = archivo(mes);
+        if (!Files.exists(archivo)) return null;
+        try (LectorJson lector = new LectorJson(Files.newBufferedReader(archivo, StandardCharsets.UTF_8))) {
+            return sello(lector);
+        }
+    }
+
+    // Lee el primer objeto: el sello si es {"sello":"..."}, si no null
+    private static String sello(LectorJson lector) throws IOException {
+        if (!lector.siguienteObjeto()) return null;
+        String sello = null;
+        while (lector.siguienteCampo()) {
+            if (lector.esClave("sello")) sello = lector.texto();
+            else lector.saltarValor();
+        }
+        return lector.objetoValido() ? sello : null;
+    }
+
+    static void borrarMes(YearMonth mes) throws IOException {
+        Files.deleteIfExists(archivo(mes));
+        Files.deleteIfExists(archivoResumen(mes));
+    }
+
+    // {"proximoId":346}; -1 si no hay contador guardado
+    static int leerContador() throws IOException {
+        CharBuffer texto = PersistenciaArchivo.leerTexto(CONTADOR_FILE);
+        if (texto == null) return -1;
+
+        try (LectorJson lector = PersistenciaArchivo.nuevoLector(texto)) {
+            if (!lector.siguienteObjeto()) return -1;
+            while (lector.siguienteCampo()) {
+                if (lector.esClave("proximoId")) {
+                    int proximo = lector.entero();
+                    return lector.objetoValido() ? proximo : -1;
+                }
+                lector.saltarValor();
+            }
+        }
+        return -1;
+    }
+
+    static void guardarContador(int proximo) throws IOException {
+        PersistenciaArchivo.escribirAtomico(Path.of(CONTADOR_FILE), out -> {
+            out.write(("{\"proximoId\":" + proximo + "}" + System.lineSeparator())
+                    .getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    static void asegurarDirectorio() {
+        File dir = new File(TURNOS_DIR);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package repo;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import model.Cliente;
+import model.Empleado;
+import model.Estilista;
+import model.Servicio;
+import model.Turno;
+import services.ClienteService;
+import services.EmpleadoService;
+import services.ServicioService;
+import services.TurnoService;
+
+/**
+ * Formato binario compacto (opcional) para guardar todos los datos en un solo
+ * archivo, data/snapshot.bin. Si ese archivo existe, la persistencia lo usa en
+ * lugar de los .json.
+ *
+ * <p>Estructura (big-endian, como la escribe DataOutputStream):</p>
+ * <pre>
+ * "PELU" | versión (short)
+ * tabla de textos:  cantidad (int), cada texto en writeUTF
+ * servicios:  cantidad, por cada uno: id, nombre (índices a la tabla), precio (double), duración (int)
+ * empleados:  cantidad, por cada uno: id, nombre (índices), tipo (byte: 0 barbero, 1 estilista)
+ * clientes:   cantidad, por cada uno: id, nombre, apellido, dni, teléfono (índices, -1 = null)
+ * turnos:     cantidad, por cada uno: id (índice), cliente, empleado, servicio (posición en
+ *             su lista), fecha en minutos desde 1970 (int), estado (byte, ordinal)
+ * </pre>
+ *
+ * <p>Con {@code main} se convierte en los dos sentidos:
+ * {@code java repo.SnapshotBinario a-binario} o {@code a-json}.</p>
+ */
+public class SnapshotBinario {
+
+    private static final int MAGICO = ('P' << 24) | ('E' << 16) | ('L' << 8) | 'U';
+    private static final short VERSION = 1;
+
+    private static final byte TIPO_BARBERO = 0;
+    private static final byte TIPO_ESTILISTA = 1;
+
+    public static void guardar(Path archivo,
+                               ClienteService cs,
+                               ServicioService ss,
+                               EmpleadoService es,
+                               TurnoService ts) throws IOException {
+        guardar(archivo, cs.listarClientes(), ss.listarServicios(), es.listarEmpleados(), ts.listarTurnos());
+    }
+
+    static void guardar(Path archivo,
+                        List<Cliente> clientes,
+                        List<Servicio> servicios,
+                        List<Empleado> empleados,
+                        List<Turno> turnos) throws IOException {
+        // primero juntamos todos los textos para escribirlos una sola vez
+        Map<String, Integer> textos = new LinkedHashMap<>();
+        for (Servicio s : servicios) {
+            indice(textos, s.getId());
+            indice(textos, s.getNombre());
+        }
+        for (Empleado e : empleados) {
+            indice(textos, e.getId());
+            indice(textos, e.getNombre());
+        }
+        for (Cliente c : clientes) {
+            indice(textos, c.getId());
+            indice(textos, c.getNombre());
+            indice(textos, c.getApellido());
+            indice(textos, c.getDni());
+            indice(textos, c.getTelefono());
+        }
+        for (Turno t : turnos) {
+            indice(textos, t.getId());
+        }
+
+        Map<Servicio, Integer> posServicio = new HashMap<>();
+        Map<Empleado, Integer> posEmpleado = new IdentityHashMap<>();
+        Map<Cliente, Integer> posCliente = new HashMap<>();
+
+        PersistenciaArchivo.escribirAtomico(archivo, destino -> {
+            DataOutputStream out = new DataOutputStream(destino);
+            out.writeInt(MAGICO);
+            out.writeShort(VERSION);
+
+            out.writeInt(textos.size());
+            for (String texto : textos.keySet()) {
+                out.writeUTF(texto);
+            }
+
+            out.writeInt(servicios.size());
+            for (Servicio s : servicios) {
+                posServicio.put(s, posServicio.size());
+                out.writeInt(indice(textos, s.getId()));
+                out.writeInt(indice(textos, s.getNombre()));
+                out.writeDouble(s.getPrecioBase());
+                out.writeInt(s.getDuracionMinutos());
+            }
+
+            out.writeInt(empleados.size());
+            for (Empleado e : empleados) {
+                posEmpleado.put(e, posEmpleado.size());
+                out.writeInt(indice(textos, e.getId()));
+                out.writeInt(indice(textos, e.getNombre()));
+                out.writeByte(e instanceof Estilista ? TIPO_ESTILISTA : TIPO_BARBERO);
+            }
+
+            out.writeInt(clientes.size());
+            for (Cliente c : clientes) {
+                posCliente.put(c, posCliente.size());
+                out.writeInt(indice(textos, c.getId()));
+                out.writeInt(indice(textos, c.getNombre()));
+                out.writeInt(indice(textos, c.getApellido()));
+                out.writeInt(indice(textos, c.getDni()));
+                out.writeInt(indice(textos, c.getTelefono()));
+            }
+
+            // los turnos cuyo cliente, empleado o servicio ya no está no se pueden referenciar
+            List<Turno> validos = new ArrayList<>(turnos.size());
+            for (Turno t : turnos) {
+                if (posCliente.containsKey(t.getCliente())
+                        && posEmpleado.containsKey(t.getEmpleado())
+                        && posServicio.containsKey(t.getServicio())) {
+                    validos.add(t);
+                }
+            }
+
+            out.writeInt(validos.size());
+            for (Turno t : validos) {
+                out.writeInt(indice(textos, t.getId()));
+                out.writeInt(posCliente.get(t.getCliente()));
+                out.writeInt(posEmpleado.get(t.getEmpleado()));
+                out.writeInt(posServicio.get(t.getServicio()));
+                out.writeInt(aMinutos(t.getFechaHora()));
+                out.writeByte(t.getEstado().ordinal());
+            }
+            out.flush();
+        });
+    }
+
+    public static void cargar(Path archivo,
+                              ClienteService cs,
+                              ServicioService ss,
+                              EmpleadoService es,
+                              TurnoService ts) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivo), 64 * 1024))) {
+            if (in.readInt() != MAGICO) {
+                throw new IOException(archivo + " no es un snapshot de la peluquería.");
+            }
+            short version = in.readShort();
+            if (version > VERSION) {
+                throw new IOException("Versión de snapshot no soportada: " + version);
+            }
+
+            String[] textos = new String[in.readInt()];
+            for (int i = 0; i < textos.length; i++) {
+                textos[i] = in.readUTF();
+            }
+
+            Servicio[] servicios = new Servicio[in.readInt()];
+            for (int i = 0; i < servicios.length; i++) {
+                String id = texto(textos, in.readInt());
+                String nombre = texto(textos, in.readInt());
+                double precio = in.readDouble();
+                int duracion = in.readInt();
+                try {
+                    servicios[i] = ss.agregarServicio(new Servicio(id, nombre, precio, duracion));
+                } catch (RuntimeException ignore) {
+                    // duplicado o inválido: se saltea, como en los .json (sus turnos también)
+                }
+            }
+
+            Empleado[] empleados = new Empleado[in.readInt()];
+            for (int i = 0; i < empleados.length; i++) {
+                String id = texto(textos, in.readInt());
+                String nombre = texto(textos, in.readInt());
+                String tipo = in.readByte() == TIPO_ESTILISTA ? "Estilista" : "Barbero";
+                try {
+                    empleados[i] = es.crearEmpleado(id, nombre, tipo);
+                } catch (RuntimeException ignore) {
+                    // duplicado o inválido: se saltea
+                }
+            }
+
+            Cliente[] clientes = new Cliente[in.readInt()];
+            for (int i = 0; i < clientes.length; i++) {
+                Cliente c = new Cliente(
+                        texto(textos, in.readInt()),
+                        texto(textos, in.readInt()),
+                        texto(textos, in.readInt()),
+                        texto(textos, in.readInt()),
+                        texto(textos, in.readInt()));
+                try {
+                    cs.agregarCliente(c);
+                    clientes[i] = c;
+                } catch (RuntimeException ignore) {
+                    // DNI duplicado o datos inválidos: se saltea
+                }
+            }
+
+            Turno.Estado[] estados = Turno.Estado.values();
+            int cantidad = in.readInt();
+            List<Turno> turnos = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                String id = texto(textos, in.readInt());
+                Cliente cliente = elemento(clientes, in.readInt());
+                Empleado empleado = elemento(empleados, in.readInt());
+                Servicio servicio = elemento(servicios, in.readInt());
+                LocalDateTime fechaHora = desdeMinutos(in.readInt());
+                Turno.Estado estado = elemento(estados, in.readByte());
+                // apunta a algo que se salteó arriba: se pierde, igual que con los .json
+                if (cliente == null || empleado == null || servicio == null) continue;
+                turnos.add(new Turno(id, cliente, empleado, servicio, fechaHora, estado));
+            }
+            ts.restaurarTurnos(turnos);
+        }
+    }
+
+    /** Pasa los .json de data/ a data/snapshot.bin (desde ahí se usa el binario). */
+    public static void jsonABinario() throws IOException {
+        ClienteService cs = new ClienteService();
+        ServicioService ss = new ServicioService();
+        EmpleadoService es = new EmpleadoService();
+        TurnoService ts = new TurnoService();
+
+        PersistenciaArchivo.cargarJson(cs, ss, es, ts);
+        guardar(PersistenciaArchivo.snapshotPath(), cs, ss, es, ts);
+    }
+
+    /** Vuelve a escribir los .json desde data/snapshot.bin y borra el binario. */
+    public static void binarioAJson() throws IOException {
+        ClienteService cs = new ClienteService();
+        ServicioService ss = new ServicioService();
+        EmpleadoService es = new EmpleadoService();
+        TurnoService ts = new TurnoService();
+
+        Path snapshot = PersistenciaArchivo.snapshotPath();
+        cargar(snapshot, cs, ss, es, ts);
+        PersistenciaArchivo.guardarJson(cs, ss, es, ts);
+        Files.delete(snapshot);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String modo = args.length > 0 ? args[0] : "";
+        switch (modo) {
+            case "a-binario" -> {
+                jsonABinario();
+                System.out.println("Datos convertidos a " + PersistenciaArchivo.snapshotPath());
+            }
+            case "a-json" -> {
+                binarioAJson();
+                System.out.println("Datos convertidos a archivos JSON.");
+            }
+            default -> System.out.println("Uso: java repo.SnapshotBinario a-binario|a-json");
+        }
+    }
+
+    private static int indice(Map<String, Integer> textos, String texto) {
+        if (texto == null) return -1;
+        Integer i = textos.get(texto);
+        if (i == null) {
+            i = textos.size();
+            textos.put(texto, i);
+        }
+        return i;
+    }
+
+    private static String texto(String[] textos, int indice) throws IOException {
+        return indice < 0 ? null : elemento(textos, indice);
+    }
+
+    // Un índice fuera de rango sólo puede venir de un archivo dañado
+    private static <T> T elemento(T[] arreglo, int indice) throws IOException {
+        if (indice < 0 || indice >= arreglo.length) {
+            throw new IOException("Snapshot dañado: índice " + indice + " fuera de rango.");
+        }
+        return arreglo[indice];
+    }
+
+    private static int aMinutos(LocalDateTime fechaHora) {
+        return (int) (fechaHora.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    private static LocalDateTime desdeMinutos(int minutos) {
+        return LocalDateTime.ofEpochSecond(minutos * 60L, 0, ZoneOffset.UTC);
+    }
+}
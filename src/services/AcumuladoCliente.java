@@ -0,0 +1,81 @@
+package services;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import model.Cliente;
+import model.Empleado;
+import model.Servicio;
+import model.Turno;
+
+/**
+ * Totales de los turnos realizados de un cliente: visitas por servicio, por
+ * empleado y por fecha. Se actualizan cuando un turno pasa a REALIZADO o deja
+ * de estarlo, igual que {@link AgregadosDiarios}, así la ficha no recorre
+ * turnos para calcularlos.
+ *
+ * <p>Se guardan cantidades: el gasto se calcula con el precio actual de cada
+ * servicio al armar la {@link FichaCliente}.</p>
+ *
+ * <p>Sólo cuenta los turnos que están en memoria. Para que esté completo
+ * alcanza con cargar los meses del historial donde el cliente tiene turnos
+ * (ver {@link ResumenMes}), no el historial entero.</p>
+ *
+ * <p>Los métodos son synchronized: turnos del mismo cliente con distintos
+ * empleados se finalizan desde distintos hilos.</p>
+ */
+class AcumuladoCliente {
+
+    // en orden de primera visita: ante un empate, el más frecuente es el que se usó primero
+    private final Map<Servicio, Integer> porServicio = new LinkedHashMap<>();
+    private final Map<Empleado, Integer> porEmpleado = new LinkedHashMap<>();
+    private final TreeMap<LocalDateTime, Integer> visitas = new TreeMap<>();   // fecha -> turnos realizados
+    private int cantidad;
+
+    synchronized void sumar(Turno t) {
+        porServicio.merge(t.getServicio(), 1, Integer::sum);
+        porEmpleado.merge(t.getEmpleado(), 1, Integer::sum);
+        visitas.merge(t.getFechaHora(), 1, Integer::sum);
+        cantidad++;
+    }
+
+    synchronized void restar(Turno t) {
+        if (!visitas.containsKey(t.getFechaHora())) return;
+
+        porServicio.computeIfPresent(t.getServicio(), (s, n) -> n == 1 ? null : n - 1);
+        porEmpleado.computeIfPresent(t.getEmpleado(), (e, n) -> n == 1 ? null : n - 1);
+        visitas.computeIfPresent(t.getFechaHora(), (f, n) -> n == 1 ? null : n - 1);
+        cantidad--;
+    }
+
+    // turnos: los del cliente en orden cronológico
+    synchronized FichaCliente ficha(Cliente cliente, List<Turno> turnos) {
+        double gasto = 0;
+        for (Map.Entry<Servicio, Integer> e : porServicio.entrySet()) {
+            gasto += e.getKey().getPrecioBase() * e.getValue();
+        }
+        return new FichaCliente(
+                cliente,
+                turnos,
+                cantidad,
+                gasto,
+                visitas.isEmpty() ? null : visitas.lastKey(),
+                masFrecuente(porServicio),
+                masFrecuente(porEmpleado)
+        );
+    }
+
+    private static <T> T masFrecuente(Map<T, Integer> cantidades) {
+        T mejor = null;
+        int maximo = 0;
+        for (Map.Entry<T, Integer> e : cantidades.entrySet()) {
+            if (e.getValue() > maximo) {
+                mejor = e.getKey();
+                maximo = e.getValue();
+            }
+        }
+        return mejor;
+    }
+}
@@ -0,0 +1,85 @@
+package services;
+
+import java.time.LocalDate;
+
+/**
+ * Una cantidad por día (ej. turnos realizados de un servicio) guardada en un
+ * árbol de Fenwick indexado por número de día: sumar en un día y sumar un
+ * rango de días cuestan O(log días), sin recorrer los días del medio.
+ *
+ * <p>El rango de días cubierto crece solo (al doble) cuando llega una fecha
+ * fuera de él; para rearmar el árbol se guarda también la cantidad de cada día.</p>
+ */
+class AcumuladoPorDia {
+
+    private static final int CAPACIDAD_INICIAL = 512;
+
+    private long base;             // epochDay de la posición 0
+    private int[] porDia = new int[0];
+    private int[] arbol = new int[1];   // Fenwick 1-based: arbol[i] cubre (i - (i & -i), i]
+    private int total;
+
+    void sumar(LocalDate dia, int cantidad) {
+        long d = dia.toEpochDay();
+        if (porDia.length == 0 || d < base || d >= base + porDia.length) ampliar(d);
+
+        int i = (int) (d - base);
+        porDia[i] += cantidad;
+        total += cantidad;
+        for (int j = i + 1; j < arbol.length; j += j & -j) {
+            arbol[j] += cantidad;
+        }
+    }
+
+    // Suma de desde a hasta, los dos incluidos
+    int suma(LocalDate desde, LocalDate hasta) {
+        if (porDia.length == 0 || desde.isAfter(hasta)) return 0;
+
+        long d = Math.max(desde.toEpochDay(), base);
+        long h = Math.min(hasta.toEpochDay(), base + porDia.length - 1);
+        if (d > h) return 0;
+        return acumulado((int) (h - base) + 1) - acumulado((int) (d - base));
+    }
+
+    boolean estaVacio() {
+        return total == 0;
+    }
+
+    // Suma de las primeras n posiciones
+    private int acumulado(int n) {
+        int suma = 0;
+        for (int j = n; j > 0; j -= j & -j) {
+            suma += arbol[j];
+        }
+        return suma;
+    }
+
+    // Agranda para que entre el día d, dejando lugar para seguir creciendo hacia ese lado
+    private void ampliar(long d) {
+        long desde;
+        int capacidad;
+        if (porDia.length == 0) {
+            capacidad = CAPACIDAD_INICIAL;
+            desde = d - capacidad / 2;
+        } else {
+            long primero = Math.min(base, d);
+            long ultimo = Math.max(base + porDia.length - 1, d);
+            capacidad = porDia.length;
+            while (capacidad < 2 * (ultimo - primero + 1)) capacidad *= 2;
+            desde = d < base ? ultimo - capacidad + 1 : primero;
+        }
+
+        int[] nuevos = new int[capacidad];
+        if (porDia.length > 0) System.arraycopy(porDia, 0, nuevos, (int) (base - desde), porDia.length);
+        base = desde;
+        porDia = nuevos;
+
+        // armado del árbol en O(n): cada posición le pasa su suma a la que la cubre
+        arbol = new int[capacidad + 1];
+        for (int i = 1; i <= capacidad; i++) {
+            arbol[i] += porDia[i - 1];
+            int padre = i + (i & -i);
+            if (padre <= capacidad) arbol[padre] += arbol[i];
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package services;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import model.Servicio;
+import model.Turno;
+
+/**
+ * Turnos pendientes de un empleado, ordenados por hora de inicio. Cada turno
+ * ocupa desde su fechaHora hasta fechaHora + duración del servicio.
+ *
+ * <p>Para saber si un horario choca sólo se miran los turnos que empiezan
+ * entre (inicio - duración más larga) y el fin del horario pedido: un subMap
+ * del TreeMap, O(log n) más los pocos turnos de esa ventana.</p>
+ *
+ * <p>La duración se lee del servicio en el momento de la consulta (puede
+ * haberse modificado desde que se reservó), por eso se lleva cuántos turnos
+ * hay de cada servicio en lugar de una duración máxima fija.</p>
+ */
+public class AgendaEmpleado {
+
+    private final TreeMap<LocalDateTime, List<Turno>> porInicio = new TreeMap<>();
+    private final Map<Servicio, Integer> usosPorServicio = new IdentityHashMap<>();
+    private int cantidad = 0;
+
+    public void agregar(Turno t) {
+        porInicio.computeIfAbsent(t.getFechaHora(), k -> new ArrayList<>(1)).add(t);
+        usosPorServicio.merge(t.getServicio(), 1, Integer::sum);
+        cantidad++;
+    }
+
+    public void quitar(Turno t) {
+        List<Turno> mismoInicio = porInicio.get(t.getFechaHora());
+        if (mismoInicio == null || !mismoInicio.remove(t)) return;
+
+        if (mismoInicio.isEmpty()) porInicio.remove(t.getFechaHora());
+        usosPorServicio.computeIfPresent(t.getServicio(), (s, n) -> n == 1 ? null : n - 1);
+        cantidad--;
+    }
+
+    public boolean estaVacia() {
+        return cantidad == 0;
+    }
+
+    /** Turnos que se superponen con [inicio, inicio + duracionMinutos). */
+    public List<Turno> superpuestos(LocalDateTime inicio, int duracionMinutos) {
+        List<Turno> resultado = new ArrayList<>();
+        if (cantidad == 0) return resultado;
+
+        // sin duración se pregunta por un instante: lo tomamos como un minuto
+        LocalDateTime fin = inicio.plusMinutes(Math.max(1, duracionMinutos));
+        LocalDateTime desde = inicio.minusMinutes(duracionMaxima());
+
+        for (List<Turno> mismoInicio : porInicio.subMap(desde, false, fin, false).values()) {
+            for (Turno t : mismoInicio) {
+                LocalDateTime finTurno = t.getFechaHora().plusMinutes(t.getServicio().getDuracionMinutos());
+                if (finTurno.isAfter(inicio)) resultado.add(t);
+            }
+        }
+        return resultado;
+    }
+
+    public boolean estaLibre(LocalDateTime inicio, int duracionMinutos) {
+        return superpuestos(inicio, duracionMinutos).isEmpty();
+    }
+
+    /**
+     * Primeros {@code cantidad} inicios libres para un servicio de
+     * {@code duracionMinutos}, entre desde y hasta, alineados a {@code pasoMinutos}
+     * y dentro del horario [apertura, cierre].
+     *
+     * <p>En vez de probar cada horario se recorren los huecos entre los turnos
+     * ocupados: cuando un candidato choca, se salta directo al fin de lo ocupado.</p>
+     */
+    public List<LocalDateTime> primerosLibres(LocalDateTime desde, LocalDateTime hasta, int duracionMinutos,
+                                              int cantidad, LocalTime apertura, LocalTime cierre, int pasoMinutos) {
+        List<LocalDateTime> libres = new ArrayList<>();
+        List<LocalDateTime[]> ocupados = ocupados(desde, hasta.plusMinutes(duracionMinutos));
+        int duracion = Math.max(1, duracionMinutos);
+        int i = 0;
+
+        LocalDateTime candidato = alinear(desde, pasoMinutos);
+        while (candidato.isBefore(hasta) && libres.size() < cantidad) {
+            if (candidato.toLocalTime().isBefore(apertura)) {
+                candidato = candidato.toLocalDate().atTime(apertura);
+                continue;
+            }
+            LocalDateTime fin = candidato.plusMinutes(duracion);
+            if (!fin.toLocalDate().equals(candidato.toLocalDate()) || fin.toLocalTime().isAfter(cierre)) {
+                candidato = candidato.toLocalDate().plusDays(1).atTime(apertura);
+                continue;
+            }
+
+            while (i < ocupados.size() && !ocupados.get(i)[1].isAfter(candidato)) i++;
+            if (i < ocupados.size() && ocupados.get(i)[0].isBefore(fin)) {
+                candidato = alinear(ocupados.get(i)[1], pasoMinutos);
+            } else {
+                libres.add(candidato);
+                candidato = candidato.plusMinutes(pasoMinutos);
+            }
+        }
+        return libres;
+    }
+
+    // Intervalos ocupados [inicio, fin) que tocan la ventana, ordenados y ya unidos entre sí
+    private List<LocalDateTime[]> ocupados(LocalDateTime desde, LocalDateTime hasta) {
+        List<LocalDateTime[]> unidos = new ArrayList<>();
+        if (cantidad == 0) return unidos;
+
+        LocalDateTime inicioVentana = desde.minusMinutes(duracionMaxima());
+        for (List<Turno> mismoInicio : porInicio.subMap(inicioVentana, true, hasta, false).values()) {
+            for (Turno t : mismoInicio) {
+                LocalDateTime inicio = t.getFechaHora();
+                LocalDateTime fin = inicio.plusMinutes(t.getServicio().getDuracionMinutos());
+                LocalDateTime[] ultimo = unidos.isEmpty() ? null : unidos.get(unidos.size() - 1);
+                if (ultimo != null && !inicio.isAfter(ultimo[1])) {
+                    if (fin.isAfter(ultimo[1])) ultimo[1] = fin;
+                } else {
+                    unidos.add(new LocalDateTime[] { inicio, fin });
+                }
+            }
+        }
+        return unidos;
+    }
+
+    // Redondea hacia arriba al siguiente múltiplo de pasoMinutos desde la medianoche
+    private static LocalDateTime alinear(LocalDateTime t, int pasoMinutos) {
+        LocalDateTime minuto = t.getSecond() == 0 && t.getNano() == 0
+                ? t
+                : t.withSecond(0).withNano(0).plusMinutes(1);
+        int resto = (minuto.getHour() * 60 + minuto.getMinute()) % pasoMinutos;
+        return resto == 0 ? minuto : minuto.plusMinutes(pasoMinutos - resto);
+    }
+
+    // Hay pocos servicios distintos: recorrerlos es más barato que mantener un máximo exacto
+    private int duracionMaxima() {
+        int maxima = 0;
+        for (Servicio s : usosPorServicio.keySet()) {
+            maxima = Math.max(maxima, s.getDuracionMinutos());
+        }
+        return maxima;
+    }
+}
@@ -0,0 +1,103 @@
+package services;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import model.Empleado;
+import model.Servicio;
+import model.Turno;
+
+/**
+ * Totales de los turnos realizados, por día × empleado × servicio, que se
+ * actualizan cuando un turno pasa a REALIZADO o deja de estarlo.
+ *
+ * <p>Se guarda sólo la cantidad de turnos: los ingresos y los minutos se
+ * calculan con el precio y la duración actuales del servicio al armar el
+ * {@link ReporteDiario}.
+ * Así un cambio de precio (modificarServicio) se refleja solo, igual que
+ * cuando los reportes recorrían los turnos.</p>
+ *
+ * <p>Para períodos (semana, mes, año) las mismas cantidades se llevan en un
+ * {@link AcumuladoPorDia} por servicio y por empleado × servicio: un rango
+ * de fechas se responde en O(log días) por servicio, sin recorrer los días.</p>
+ *
+ * <p>Los métodos son synchronized: se suman turnos de distintos empleados
+ * desde distintos hilos, y delDia devuelve una copia.</p>
+ */
+class AgregadosDiarios {
+
+    private final Map<LocalDate, Map<Empleado, Map<Servicio, Integer>>> realizados = new HashMap<>();
+
+    private final Map<Servicio, AcumuladoPorDia> porServicio = new LinkedHashMap<>();
+    private final Map<Empleado, Map<Servicio, AcumuladoPorDia>> porEmpleado = new LinkedHashMap<>();
+
+    synchronized void sumar(Turno t) {
+        realizados.computeIfAbsent(t.getFechaHora().toLocalDate(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(t.getEmpleado(), k -> new LinkedHashMap<>())
+                .merge(t.getServicio(), 1, Integer::sum);
+        acumular(t, 1);
+    }
+
+    synchronized void restar(Turno t) {
+        LocalDate dia = t.getFechaHora().toLocalDate();
+        Map<Empleado, Map<Servicio, Integer>> delDia = realizados.get(dia);
+        if (delDia == null) return;
+        Map<Servicio, Integer> delEmpleado = delDia.get(t.getEmpleado());
+        if (delEmpleado == null) return;
+
+        acumular(t, -1);
+        delEmpleado.computeIfPresent(t.getServicio(), (s, n) -> n == 1 ? null : n - 1);
+        if (delEmpleado.isEmpty()) delDia.remove(t.getEmpleado());
+        if (delDia.isEmpty()) realizados.remove(dia);
+    }
+
+    // Ingresos de desde a hasta (incluidos), con el precio actual de cada servicio
+    synchronized double ingresos(LocalDate desde, LocalDate hasta) {
+        double total = 0;
+        for (Map.Entry<Servicio, AcumuladoPorDia> e : porServicio.entrySet()) {
+            total += e.getKey().getPrecioBase() * e.getValue().suma(desde, hasta);
+        }
+        return total;
+    }
+
+    synchronized Map<Servicio, Double> ingresosPorServicio(LocalDate desde, LocalDate hasta) {
+        Map<Servicio, Double> resultado = new LinkedHashMap<>();
+        porServicio.forEach((servicio, acumulado) -> {
+            int cantidad = acumulado.suma(desde, hasta);
+            if (cantidad > 0) resultado.put(servicio, servicio.getPrecioBase() * cantidad);
+        });
+        return resultado;
+    }
+
+    synchronized Map<Empleado, Double> ingresosPorEmpleado(LocalDate desde, LocalDate hasta) {
+        Map<Empleado, Double> resultado = new LinkedHashMap<>();
+        porEmpleado.forEach((empleado, delEmpleado) -> {
+            double total = 0;
+            boolean trabajo = false;
+            for (Map.Entry<Servicio, AcumuladoPorDia> e : delEmpleado.entrySet()) {
+                int cantidad = e.getValue().suma(desde, hasta);
+                total += e.getKey().getPrecioBase() * cantidad;
+                trabajo |= cantidad > 0;
+            }
+            if (trabajo) resultado.put(empleado, total);
+        });
+        return resultado;
+    }
+
+    private void acumular(Turno t, int cantidad) {
+        LocalDate dia = t.getFechaHora().toLocalDate();
+        porServicio.computeIfAbsent(t.getServicio(), k -> new AcumuladoPorDia()).sumar(dia, cantidad);
+        porEmpleado.computeIfAbsent(t.getEmpleado(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(t.getServicio(), k -> new AcumuladoPorDia())
+                .sumar(dia, cantidad);
+    }
+
+    // empleado -> (servicio -> cantidad de turnos realizados) ese día
+    synchronized Map<Empleado, Map<Servicio, Integer>> delDia(LocalDate fecha) {
+        Map<Empleado, Map<Servicio, Integer>> copia = new LinkedHashMap<>();
+        realizados.getOrDefault(fecha, Map.of())
+                .forEach((empleado, delEmpleado) -> copia.put(empleado, new LinkedHashMap<>(delEmpleado)));
+        return copia;
+    }
+}
@@ -4,6 +4,12 @@
  *
  * <p>Incluye validaciones de DNI duplicado.</p>
  *
+ * <p>Los clientes se guardan en un LinkedHashMap por DNI (alta, búsqueda y
+ * baja en O(1), y el listado sale en orden de alta) y en un índice por
+ * teléfono normalizado, para reconocer al cliente que llama. Nombre y
+ * apellido están además en un {@link IndiceBusqueda} para la búsqueda por
+ * nombre mientras se escribe.</p>
+ *
  * @author Thomas
  */
 
@@ -11,61 +17,125 @@ package services;
 
 import exceptions.ClienteDuplicadoException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import model.Cliente;
+import util.IndiceBusqueda;
+import util.NotificadorCambios;
+import util.ObservadorCambios;
 
 public class ClienteService {
 
-    private final List<Cliente> clientes = new ArrayList<>();
-    private final String[] historial = new String[10];
-    private int indiceHistorial = 0;
+    // Los teléfonos de Argentina tienen 10 dígitos sin el 0, el 54 ni el 9 de celular
+    private static final int DIGITOS_TELEFONO = 10;
+
+    private final Map<String, Cliente> porDni = new LinkedHashMap<>();
+    private final Map<String, List<Cliente>> porTelefono = new HashMap<>();   // clave: normalizarTelefono
+    private final IndiceBusqueda<Cliente> porNombre =
+            new IndiceBusqueda<>(c -> c.getNombre() + " " + c.getApellido());
+    private List<Cliente> lista;   // copia de porDni.values() para listarClientes; null = rearmar
+    private final NotificadorCambios cambios = new NotificadorCambios();
+    private TurnoService turnoService;   // null: sin control de turnos al borrar
 
-    private void agregarHistorial(String mensaje) {
-        historial[indiceHistorial % historial.length] = mensaje;
-        indiceHistorial++;
+    public void agregarObservador(ObservadorCambios observador) {
+        cambios.agregar(observador);
     }
 
-    public void mostrarHistorial() {
-        System.out.println("\n--- Historial de acciones (ClienteService) ---");
-        for (String h : historial) {
-            if (h != null) System.out.println("- " + h);
-        }
+    // Para no borrar clientes que tienen turnos (ver TurnoService.verificarSinTurnos)
+    public void setTurnoService(TurnoService turnoService) {
+        this.turnoService = turnoService;
+    }
+
+    // Cambia con cada alta, modificación o baja
+    public long getVersion() {
+        return cambios.getVersion();
     }
 
     public void agregarCliente(Cliente c) {
         // Validar duplicado por DNI
-        boolean existe = clientes.stream()
-                .anyMatch(x -> x.getDni().equals(c.getDni()));
-        if (existe) {
+        if (porDni.containsKey(c.getDni())) {
             throw new ClienteDuplicadoException(
                     "Ya existe un cliente con DNI: " + c.getDni()
             );
         }
-        if (!c.getDni().matches("\\d+")) {
+        validarDatos(c);
+        indexar(c);
+        cambios.notificar(ObservadorCambios.Operacion.ALTA, c);
+    }
+
+    /**
+     * Alta de un lote de clientes (importación). Si algún cliente del lote no
+     * es válido no se agrega ninguno.
+     */
+    public void agregarClientes(List<Cliente> lote) {
+        Set<String> delLote = new HashSet<>();
+        for (Cliente c : lote) {
+            validarDatos(c);
+            if (porDni.containsKey(c.getDni()) || !delLote.add(c.getDni())) {
+                throw new ClienteDuplicadoException(
+                        "Ya existe un cliente con DNI: " + c.getDni()
+                );
+            }
+        }
+
+        for (Cliente c : lote) {
+            indexar(c);
+            cambios.notificar(ObservadorCambios.Operacion.ALTA, c);
+        }
+    }
+
+    // Reglas de un cliente nuevo (salvo el DNI duplicado)
+    public void validarDatos(Cliente c) {
+        if (c.getDni() == null || !c.getDni().matches("\\d+")) {
             throw new IllegalArgumentException("El DNI debe ser numérico.");
         }
-        if (!c.getTelefono().matches("\\d+")) {
+        if (c.getTelefono() == null || !c.getTelefono().matches("\\d+")) {
             throw new IllegalArgumentException("El teléfono debe ser numérico.");
         }
-        if (c.getNombre().isBlank() || c.getApellido().isBlank()) {
+        if (c.getNombre() == null || c.getApellido() == null
+                || c.getNombre().isBlank() || c.getApellido().isBlank()) {
             throw new IllegalArgumentException("El nombre y apellido son obligatorios.");
         }
-        clientes.add(c);
-        agregarHistorial("Cliente agregado: DNI " + c.getDni());
     }
 
     public Cliente buscarPorDni(String dni) {
-        return clientes.stream()
-                .filter(c -> c.getDni().equals(dni))
-                .findFirst()
-                .orElseThrow(() ->
-                        new ClienteDuplicadoException("Cliente no encontrado"));
+        Cliente c = porDni.get(dni);
+        if (c == null) {
+            throw new ClienteDuplicadoException("Cliente no encontrado");
+        }
+        return c;
+    }
+
+    public boolean existeCliente(String dni) {
+        return porDni.containsKey(dni);
+    }
+
+    /**
+     * Clientes con ese teléfono (puede haber más de uno, ej. una familia).
+     * Acepta el número como venga: "+54 9 11 4567-8901", "011 4567-8901" y
+     * "1145678901" dan lo mismo.
+     */
+    public List<Cliente> buscarPorTelefono(String telefono) {
+        String clave = normalizarTelefono(telefono);
+        if (clave.isEmpty()) return List.of();
+        return new ArrayList<>(porTelefono.getOrDefault(clave, List.of()));
     }
 
+    /**
+     * Clientes cuyo nombre o apellido coincide con lo escrito, los mejores
+     * primero. Sin importar acentos ni mayúsculas; cada palabra puede ser el
+     * comienzo de un nombre ("mar gon" encuentra a María González).
+     */
     public List<Cliente> buscarPorNombre(String nombre) {
-        return clientes.stream()
-                .filter(c -> c.getNombre().toLowerCase().contains(nombre.toLowerCase()))
-                .toList();
+        return buscarPorNombre(nombre, Integer.MAX_VALUE);
+    }
+
+    public List<Cliente> buscarPorNombre(String nombre, int maximo) {
+        return porNombre.buscar(nombre, maximo);
     }
 
     public void modificarCliente(String dni, String nuevoNombre,
@@ -75,17 +145,66 @@ public class ClienteService {
 
         if (nuevoNombre != null) c.setNombre(nuevoNombre);
         if (nuevoApellido != null) c.setApellido(nuevoApellido);
-        if (nuevoTelefono != null) c.setTelefono(nuevoTelefono);
-        agregarHistorial("Cliente modificado: DNI " + dni);
+        if (nuevoNombre != null || nuevoApellido != null) porNombre.actualizar(c);
+        if (nuevoTelefono != null) {
+            desindexarTelefono(c);
+            c.setTelefono(nuevoTelefono);
+            indexarTelefono(c);
+        }
+        cambios.notificar(ObservadorCambios.Operacion.MODIFICACION, c);
     }
 
     public boolean eliminarPorDni(String dni) {
-        agregarHistorial("Cliente eliminado: DNI " + dni);
-        return clientes.removeIf(c -> c.getDni().equals(dni));
+        if (!porDni.containsKey(dni)) return false;
+        if (turnoService != null) {
+            turnoService.verificarClienteSinTurnos(dni);
+        }
+
+        Cliente c = porDni.remove(dni);
+        lista = null;
+        desindexarTelefono(c);
+        porNombre.quitar(c);
+        cambios.notificar(ObservadorCambios.Operacion.BAJA, c);
+        return true;
     }
 
+    // En orden de alta; es una copia que se rearma sólo si hubo altas o bajas
     public List<Cliente> listarClientes() {
-        return clientes;
+        if (lista == null) lista = List.copyOf(porDni.values());
+        return lista;
+    }
+
+    private void indexar(Cliente c) {
+        porDni.put(c.getDni(), c);
+        lista = null;
+        indexarTelefono(c);
+        porNombre.agregar(c);
+    }
+
+    private void indexarTelefono(Cliente c) {
+        String clave = normalizarTelefono(c.getTelefono());
+        if (!clave.isEmpty()) porTelefono.computeIfAbsent(clave, k -> new ArrayList<>(1)).add(c);
+    }
+
+    private void desindexarTelefono(Cliente c) {
+        String clave = normalizarTelefono(c.getTelefono());
+        List<Cliente> mismos = porTelefono.get(clave);
+        if (mismos == null) return;
+
+        mismos.remove(c);
+        if (mismos.isEmpty()) porTelefono.remove(clave);
+    }
+
+    // Sólo los dígitos, y de esos los últimos 10 (así se ignoran 0, 54 y 9 adelante)
+    private static String normalizarTelefono(String telefono) {
+        if (telefono == null) return "";
+        StringBuilder digitos = new StringBuilder(telefono.length());
+        for (int i = 0; i < telefono.length(); i++) {
+            char ch = telefono.charAt(i);
+            if (ch >= '0' && ch <= '9') digitos.append(ch);
+        }
+        int sobran = digitos.length() - DIGITOS_TELEFONO;
+        return sobran > 0 ? digitos.substring(sobran) : digitos.toString();
     }
 
 }
@@ -0,0 +1,285 @@
+package services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import model.Cliente;
+import model.Empleado;
+import model.Servicio;
+import model.Turno;
+
+/**
+ * Copia por columnas de los turnos en memoria, para los reportes que recorren
+ * mucho historial. En lugar de objetos Turno (con referencias a cliente,
+ * empleado y servicio y un LocalDateTime) hay arreglos paralelos: empleado,
+ * servicio y cliente como número de orden, la fecha en minutos desde 1970 y
+ * el estado en un byte. Recorrer un año es un loop sobre arreglos primitivos,
+ * sin seguir referencias ni crear objetos por turno.
+ *
+ * <p>La mantiene al día {@link TurnoService} (altas y cambios de estado). Las
+ * consultas toman el candado de lectura: pueden correr varias a la vez y un
+ * alta espera a que terminen.</p>
+ *
+ * <p>Los importes se calculan con el precio actual de cada servicio, igual que
+ * en {@link ReporteDiario}.</p>
+ */
+public final class ColumnasTurnos {
+
+    private static final int MINUTOS_DIA = 24 * 60;
+
+    private int[] empleado = new int[1024];
+    private int[] servicio = new int[1024];
+    private int[] cliente = new int[1024];
+    private int[] minuto = new int[1024];
+    private byte[] estado = new byte[1024];
+    private int filas = 0;
+
+    private final Map<Turno, Integer> filaDe = new IdentityHashMap<>();
+    private final Ordinales<Empleado> empleados = new Ordinales<>();
+    private final Ordinales<Servicio> servicios = new Ordinales<>();
+    private final Ordinales<Cliente> clientes = new Ordinales<>();
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    void agregar(Turno t) {
+        candado.writeLock().lock();
+        try {
+            if (filaDe.containsKey(t)) return;
+            if (filas == minuto.length) crecer();
+
+            empleado[filas] = empleados.ordinal(t.getEmpleado());
+            servicio[filas] = servicios.ordinal(t.getServicio());
+            cliente[filas] = clientes.ordinal(t.getCliente());
+            minuto[filas] = aMinutos(t.getFechaHora());
+            estado[filas] = (byte) t.getEstado().ordinal();
+            filaDe.put(t, filas);
+            filas++;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // El turno ya tiene el estado nuevo
+    void actualizarEstado(Turno t) {
+        candado.writeLock().lock();
+        try {
+            Integer fila = filaDe.get(t);
+            if (fila != null) estado[fila] = (byte) t.getEstado().ordinal();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public int cantidadTurnos() {
+        candado.readLock().lock();
+        try {
+            return filas;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // ---- consultas: desde y hasta incluidos; estado null = cualquiera ----
+
+    public int contar(LocalDate desde, LocalDate hasta, Turno.Estado estadoBuscado) {
+        int desdeMin = inicio(desde);
+        int hastaMin = inicio(hasta.plusDays(1));
+        int est = codigo(estadoBuscado);
+
+        candado.readLock().lock();
+        try {
+            int cantidad = 0;
+            for (int i = 0; i < filas; i++) {
+                if (minuto[i] >= desdeMin && minuto[i] < hastaMin && (est < 0 || estado[i] == est)) cantidad++;
+            }
+            return cantidad;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public Map<Empleado, Integer> cantidadPorEmpleado(LocalDate desde, LocalDate hasta, Turno.Estado estadoBuscado) {
+        candado.readLock().lock();
+        try {
+            return empleados.aMapa(contarPor(empleado, empleados.cantidad(), desde, hasta, estadoBuscado));
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public Map<Servicio, Integer> cantidadPorServicio(LocalDate desde, LocalDate hasta, Turno.Estado estadoBuscado) {
+        candado.readLock().lock();
+        try {
+            return servicios.aMapa(contarPor(servicio, servicios.cantidad(), desde, hasta, estadoBuscado));
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public Map<Cliente, Integer> cantidadPorCliente(LocalDate desde, LocalDate hasta, Turno.Estado estadoBuscado) {
+        candado.readLock().lock();
+        try {
+            return clientes.aMapa(contarPor(cliente, clientes.cantidad(), desde, hasta, estadoBuscado));
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Turnos según la hora de inicio: posición 0 = de 00 a 01, ..., 23 = de 23 a 24
+    public int[] cantidadPorHora(LocalDate desde, LocalDate hasta, Turno.Estado estadoBuscado) {
+        int desdeMin = inicio(desde);
+        int hastaMin = inicio(hasta.plusDays(1));
+        int est = codigo(estadoBuscado);
+        int[] porHora = new int[24];
+
+        candado.readLock().lock();
+        try {
+            for (int i = 0; i < filas; i++) {
+                int m = minuto[i];
+                if (m >= desdeMin && m < hastaMin && (est < 0 || estado[i] == est)) {
+                    porHora[Math.floorMod(m, MINUTOS_DIA) / 60]++;
+                }
+            }
+            return porHora;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Minutos de turnos realizados de cada empleado, con la duración actual de cada servicio
+    public Map<Empleado, Integer> minutosPorEmpleado(LocalDate desde, LocalDate hasta) {
+        int desdeMin = inicio(desde);
+        int hastaMin = inicio(hasta.plusDays(1));
+        int realizado = Turno.Estado.REALIZADO.ordinal();
+
+        candado.readLock().lock();
+        try {
+            int[] duracion = new int[servicios.cantidad()];
+            for (int s = 0; s < duracion.length; s++) {
+                duracion[s] = servicios.get(s).getDuracionMinutos();
+            }
+
+            int[] minutos = new int[empleados.cantidad()];
+            for (int i = 0; i < filas; i++) {
+                if (minuto[i] >= desdeMin && minuto[i] < hastaMin && estado[i] == realizado) {
+                    minutos[empleado[i]] += duracion[servicio[i]];
+                }
+            }
+            return empleados.aMapa(minutos);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Ingresos de los turnos realizados en cada mes del año: posición 0 = enero
+    public double[] ingresosPorMes(int anio) {
+        int[] limites = new int[13];
+        for (int mes = 0; mes < 12; mes++) {
+            limites[mes] = inicio(LocalDate.of(anio, mes + 1, 1));
+        }
+        limites[12] = inicio(LocalDate.of(anio + 1, 1, 1));
+        int realizado = Turno.Estado.REALIZADO.ordinal();
+
+        candado.readLock().lock();
+        try {
+            // primero cantidades por mes y servicio; los precios se aplican al final
+            int cantidadServicios = servicios.cantidad();
+            int[] cantidades = new int[12 * cantidadServicios];
+            for (int i = 0; i < filas; i++) {
+                int m = minuto[i];
+                if (m < limites[0] || m >= limites[12] || estado[i] != realizado) continue;
+
+                int mes = 0;
+                while (m >= limites[mes + 1]) mes++;
+                cantidades[mes * cantidadServicios + servicio[i]]++;
+            }
+
+            double[] ingresos = new double[12];
+            for (int mes = 0; mes < 12; mes++) {
+                for (int s = 0; s < cantidadServicios; s++) {
+                    ingresos[mes] += cantidades[mes * cantidadServicios + s] * servicios.get(s).getPrecioBase();
+                }
+            }
+            return ingresos;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Con el candado de lectura tomado
+    private int[] contarPor(int[] columna, int tamanio, LocalDate desde, LocalDate hasta, Turno.Estado estadoBuscado) {
+        int desdeMin = inicio(desde);
+        int hastaMin = inicio(hasta.plusDays(1));
+        int est = codigo(estadoBuscado);
+
+        int[] cantidades = new int[tamanio];
+        for (int i = 0; i < filas; i++) {
+            if (minuto[i] >= desdeMin && minuto[i] < hastaMin && (est < 0 || estado[i] == est)) {
+                cantidades[columna[i]]++;
+            }
+        }
+        return cantidades;
+    }
+
+    private void crecer() {
+        int capacidad = minuto.length * 2;
+        empleado = Arrays.copyOf(empleado, capacidad);
+        servicio = Arrays.copyOf(servicio, capacidad);
+        cliente = Arrays.copyOf(cliente, capacidad);
+        minuto = Arrays.copyOf(minuto, capacidad);
+        estado = Arrays.copyOf(estado, capacidad);
+    }
+
+    private static int codigo(Turno.Estado e) {
+        return e == null ? -1 : e.ordinal();
+    }
+
+    // Minutos desde 1970, como en el snapshot binario
+    private static int aMinutos(LocalDateTime fechaHora) {
+        return (int) (fechaHora.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    private static int inicio(LocalDate dia) {
+        return (int) (dia.toEpochDay() * MINUTOS_DIA);
+    }
+
+    // Número de orden de cada empleado, servicio o cliente (por identidad, como en AgendaEmpleado)
+    private static final class Ordinales<T> {
+        private final Map<T, Integer> ordinal = new IdentityHashMap<>();
+        private final List<T> valores = new ArrayList<>();
+
+        int ordinal(T valor) {
+            Integer o = ordinal.get(valor);
+            if (o == null) {
+                o = valores.size();
+                ordinal.put(valor, o);
+                valores.add(valor);
+            }
+            return o;
+        }
+
+        T get(int ordinal) {
+            return valores.get(ordinal);
+        }
+
+        int cantidad() {
+            return valores.size();
+        }
+
+        // Sólo los que tienen algo, en orden de aparición
+        Map<T, Integer> aMapa(int[] cantidades) {
+            Map<T, Integer> mapa = new LinkedHashMap<>();
+            for (int i = 0; i < cantidades.length; i++) {
+                if (cantidades[i] > 0) mapa.put(valores.get(i), cantidades[i]);
+            }
+            return mapa;
+        }
+    }
+}
@@ -11,25 +11,49 @@ package services;
 
 import exceptions.EmpleadoNoEncontradoException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import model.Barbero;
 import model.Empleado;
 import model.Estilista;
+import util.AsignadorIds;
+import util.ClaveId;
+import util.NotificadorCambios;
+import util.ObservadorCambios;
 
 public class EmpleadoService {
 
     private final List<Empleado> empleados = new ArrayList<>();
-    private int contadorEmpleados = 1;
+    private final Map<String, Empleado> porId = new HashMap<>();   // clave: ClaveId.normalizar
+    private final AsignadorIds ids = new AsignadorIds("E");
+    private final NotificadorCambios cambios = new NotificadorCambios();
+    private TurnoService turnoService;   // null: sin control de turnos al borrar
+
+    public void agregarObservador(ObservadorCambios observador) {
+        cambios.agregar(observador);
+    }
+
+    // Para no borrar empleados que tienen turnos (ver TurnoService.verificarSinTurnos)
+    public void setTurnoService(TurnoService turnoService) {
+        this.turnoService = turnoService;
+    }
+
+    // Cambia con cada alta, modificación o baja
+    public long getVersion() {
+        return cambios.getVersion();
+    }
+
     public List<Empleado> listarEmpleados() {
         return empleados;
     }
 
     public Empleado buscarPorId(String id) {
-        return empleados.stream()
-                .filter(e -> e.getId().equalsIgnoreCase(id))
-                .findFirst()
-                .orElseThrow(() ->
-                new EmpleadoNoEncontradoException("No existe empleado con ID: " + id));
+        Empleado e = porId.get(ClaveId.normalizar(id));
+        if (e == null) {
+            throw new EmpleadoNoEncontradoException("No existe empleado con ID: " + id);
+        }
+        return e;
     }
 
     public Empleado crearEmpleado(String id, String nombre, String tipo) {
@@ -41,13 +65,13 @@ public class EmpleadoService {
             throw new IllegalArgumentException("Tipo de empleado inválido. Use Barbero o Estilista.");
         }
         if (id != null && id.startsWith("E")) {
-            try {
-                int nro = Integer.parseInt(id.substring(1));
-                if (nro >= contadorEmpleados) contadorEmpleados = nro + 1;
-            } catch (Exception ignore) {}
+            ids.registrarUsado(id);
         } else {
             id = generarIdEmpleado();
         }
+        if (porId.containsKey(ClaveId.normalizar(id))) {
+            throw new IllegalArgumentException("Ya existe un empleado con ID: " + id);
+        }
         Empleado nuevo;
         switch (tipo.toLowerCase()) {
             case "barbero" -> nuevo = new Barbero(id, nombre);
@@ -55,6 +79,8 @@ public class EmpleadoService {
             default -> throw new IllegalArgumentException("Tipo de empleado inválido");
         }
         empleados.add(nuevo);
+        porId.put(ClaveId.normalizar(id), nuevo);
+        cambios.notificar(ObservadorCambios.Operacion.ALTA, nuevo);
         return nuevo;
     }
 
@@ -67,14 +93,34 @@ public class EmpleadoService {
         if (nuevaEspecialidad != null && !nuevaEspecialidad.isBlank()) {
             e.setEspecialidad(nuevaEspecialidad);
         }
+        cambios.notificar(ObservadorCambios.Operacion.MODIFICACION, e);
     }
 
     public boolean eliminar(String id) {
-        buscarPorId(id);
-        return empleados.removeIf(e -> e.getId().equalsIgnoreCase(id));
+        Empleado e = buscarPorId(id);
+        if (turnoService != null) {
+            turnoService.verificarEmpleadoSinTurnos(e.getId());
+        }
+        empleados.remove(e);
+        porId.remove(ClaveId.normalizar(e.getId()));
+        cambios.notificar(ObservadorCambios.Operacion.BAJA, e);
+        return true;
     }
 
     public String generarIdEmpleado() {
-        return "E" + (contadorEmpleados++);
+        String id;
+        do {
+            id = ids.siguiente();
+        } while (porId.containsKey(ClaveId.normalizar(id)));
+        return id;
+    }
+
+    // Número que va a usar el próximo empleado (se guarda para no repetir IDs de empleados borrados)
+    public int getProximoNumeroEmpleado() {
+        return ids.getProximo();
+    }
+
+    public void ajustarProximoNumeroEmpleado(int proximo) {
+        ids.ajustarProximo(proximo);
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package services;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import model.Cliente;
+import model.Empleado;
+import model.Servicio;
+import model.Turno;
+
+/**
+ * Lo que necesita recepción de un cliente mientras está al teléfono: sus
+ * turnos en orden cronológico y los totales de sus visitas (turnos
+ * realizados). El gasto se calcula con el precio actual de cada servicio,
+ * igual que en {@link ReporteDiario}.
+ */
+public final class FichaCliente {
+
+    private final Cliente cliente;
+    private final List<Turno> turnos;
+    private final int visitas;
+    private final double gastoTotal;
+    private final LocalDateTime ultimaVisita;
+    private final Servicio servicioFrecuente;
+    private final Empleado empleadoFrecuente;
+
+    FichaCliente(Cliente cliente, List<Turno> turnos, int visitas, double gastoTotal,
+                 LocalDateTime ultimaVisita, Servicio servicioFrecuente, Empleado empleadoFrecuente) {
+        this.cliente = cliente;
+        this.turnos = Collections.unmodifiableList(turnos);
+        this.visitas = visitas;
+        this.gastoTotal = gastoTotal;
+        this.ultimaVisita = ultimaVisita;
+        this.servicioFrecuente = servicioFrecuente;
+        this.empleadoFrecuente = empleadoFrecuente;
+    }
+
+    public Cliente getCliente() { return cliente; }
+    public List<Turno> getTurnos() { return turnos; }
+    public int getVisitas() { return visitas; }
+    public double getGastoTotal() { return gastoTotal; }
+
+    // null si todavía no tuvo ninguna visita
+    public LocalDateTime getUltimaVisita() { return ultimaVisita; }
+    public Servicio getServicioFrecuente() { return servicioFrecuente; }
+    public Empleado getEmpleadoFrecuente() { return empleadoFrecuente; }
+
+    // El primer turno pendiente desde ahora, o null
+    public Turno getProximoTurno() {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Turno t : turnos) {
+            if (t.getEstado() == Turno.Estado.PENDIENTE && !t.getFechaHora().isBefore(ahora)) return t;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package services;
+
+import java.time.YearMonth;
+import java.util.List;
+import model.Turno;
+
+/**
+ * Fuente de los turnos de meses anteriores, que no se cargan al iniciar.
+ * La implementa la persistencia; {@link TurnoService} la usa recién cuando
+ * una consulta pide una fecha de ese mes.
+ */
+public interface HistorialTurnos {
+
+    List<Turno> cargarMes(YearMonth mes);
+
+    /**
+     * Cuántos turnos tiene cada cliente, empleado y servicio en el mes, sin
+     * leer sus turnos. null si no hay resumen al día: hay que cargar el mes.
+     */
+    default ResumenMes resumenMes(YearMonth mes) {
+        return null;
+    }
+}
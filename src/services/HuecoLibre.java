@@ -0,0 +1,37 @@
+package services;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import model.Empleado;
+
+/**
+ * Un horario libre para un servicio: qué empleado lo puede atender y de qué
+ * hora a qué hora.
+ */
+public final class HuecoLibre {
+
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final Empleado empleado;
+    private final LocalDateTime inicio;
+    private final LocalDateTime fin;
+
+    public HuecoLibre(Empleado empleado, LocalDateTime inicio, LocalDateTime fin) {
+        this.empleado = empleado;
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+
+    public Empleado getEmpleado() { return empleado; }
+    public LocalDateTime getInicio() { return inicio; }
+    public LocalDateTime getFin() { return fin; }
+
+    @Override
+    public String toString() {
+        return String.format("%s a %s | %s - %s",
+                inicio.format(FORMATO),
+                fin.toLocalTime(),
+                empleado.getId(),
+                empleado.getNombre());
+    }
+}
@@ -0,0 +1,91 @@
+package services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.Empleado;
+import model.Servicio;
+
+/**
+ * Todas las métricas de los turnos realizados en un día, calculadas juntas en
+ * una sola pasada: ingresos y minutos por empleado, ingresos y cantidad por
+ * servicio, y el ranking de servicios.
+ *
+ * <p>Las claves son los objetos {@link Empleado} y {@link Servicio}; el texto
+ * que se muestra lo arma el menú.</p>
+ */
+public final class ReporteDiario {
+
+    private final LocalDate fecha;
+    private double ingresos;
+    private int turnosRealizados;
+    private final Map<Empleado, Double> ingresosPorEmpleado = new LinkedHashMap<>();
+    private final Map<Empleado, Integer> minutosPorEmpleado = new LinkedHashMap<>();
+    private final Map<Servicio, Double> ingresosPorServicio = new LinkedHashMap<>();
+    private final Map<Servicio, Integer> cantidadPorServicio = new LinkedHashMap<>();
+
+    private ReporteDiario(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    // realizados: empleado -> (servicio -> cantidad de turnos realizados) ese día
+    static ReporteDiario armar(LocalDate fecha, Map<Empleado, Map<Servicio, Integer>> realizados) {
+        ReporteDiario r = new ReporteDiario(fecha);
+
+        realizados.forEach((empleado, delEmpleado) -> {
+            double ingresosEmpleado = 0;
+            int minutosEmpleado = 0;
+
+            for (Map.Entry<Servicio, Integer> e : delEmpleado.entrySet()) {
+                Servicio servicio = e.getKey();
+                int cantidad = e.getValue();
+                double importe = servicio.getPrecioBase() * cantidad;
+
+                ingresosEmpleado += importe;
+                minutosEmpleado += servicio.getDuracionMinutos() * cantidad;
+                r.ingresosPorServicio.merge(servicio, importe, Double::sum);
+                r.cantidadPorServicio.merge(servicio, cantidad, Integer::sum);
+                r.turnosRealizados += cantidad;
+            }
+
+            r.ingresos += ingresosEmpleado;
+            r.ingresosPorEmpleado.put(empleado, ingresosEmpleado);
+            r.minutosPorEmpleado.put(empleado, minutosEmpleado);
+        });
+        return r;
+    }
+
+    public LocalDate getFecha() { return fecha; }
+    public double getIngresos() { return ingresos; }
+    public int getTurnosRealizados() { return turnosRealizados; }
+
+    public Map<Empleado, Double> getIngresosPorEmpleado() {
+        return Collections.unmodifiableMap(ingresosPorEmpleado);
+    }
+
+    public Map<Empleado, Integer> getMinutosPorEmpleado() {
+        return Collections.unmodifiableMap(minutosPorEmpleado);
+    }
+
+    public Map<Servicio, Double> getIngresosPorServicio() {
+        return Collections.unmodifiableMap(ingresosPorServicio);
+    }
+
+    public Map<Servicio, Integer> getCantidadPorServicio() {
+        return Collections.unmodifiableMap(cantidadPorServicio);
+    }
+
+    // Servicios del más vendido al menos vendido
+    public List<Servicio> getRankingServicios() {
+        List<Servicio> ranking = new ArrayList<>(cantidadPorServicio.keySet());
+        ranking.sort((a, b) -> Integer.compare(cantidadPorServicio.get(b), cantidadPorServicio.get(a)));
+        return ranking;
+    }
+
+    public boolean estaVacio() {
+        return turnosRealizados == 0;
+    }
+}
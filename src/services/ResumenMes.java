@@ -0,0 +1,80 @@
+package services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import model.Turno;
+import util.ClaveId;
+
+/**
+ * Cuántos turnos (y cuántos pendientes) tiene cada cliente, empleado y
+ * servicio en un mes guardado. La persistencia lo escribe junto con el mes;
+ * {@link TurnoService} lo usa para saber, sin leer el historial, si algo
+ * tiene turnos en un mes que no está en memoria y qué meses hay que cargar
+ * para listarlos.
+ *
+ * <p>Claves: el DNI del cliente y el ID normalizado (ver {@link ClaveId}) del
+ * empleado y del servicio.</p>
+ */
+public final class ResumenMes {
+
+    public enum Tipo { CLIENTE, EMPLEADO, SERVICIO }
+
+    /** Recibe cada clave con sus cantidades (para escribir el resumen). */
+    public interface Lector<E extends Exception> {
+        void conteo(Tipo tipo, String clave, int turnos, int pendientes) throws E;
+    }
+
+    private static final int[] SIN_TURNOS = {0, 0};
+
+    // clave -> {turnos, pendientes}
+    private final Map<Tipo, Map<String, int[]>> conteos = new HashMap<>();
+
+    public ResumenMes() {
+        for (Tipo tipo : Tipo.values()) {
+            conteos.put(tipo, new HashMap<>());
+        }
+    }
+
+    /** Resumen de los turnos de un mes (al guardarlo). */
+    public static ResumenMes de(List<Turno> turnos) {
+        ResumenMes r = new ResumenMes();
+        for (Turno t : turnos) {
+            int pendiente = t.getEstado() == Turno.Estado.PENDIENTE ? 1 : 0;
+            r.sumar(Tipo.CLIENTE, t.getCliente().getDni(), 1, pendiente);
+            r.sumar(Tipo.EMPLEADO, t.getEmpleado().getId(), 1, pendiente);
+            r.sumar(Tipo.SERVICIO, t.getServicio().getId(), 1, pendiente);
+        }
+        return r;
+    }
+
+    public void sumar(Tipo tipo, String clave, int turnos, int pendientes) {
+        int[] c = conteos.get(tipo).computeIfAbsent(clave(tipo, clave), k -> new int[2]);
+        c[0] += turnos;
+        c[1] += pendientes;
+    }
+
+    public int turnos(Tipo tipo, String clave) {
+        return conteo(tipo, clave)[0];
+    }
+
+    public int pendientes(Tipo tipo, String clave) {
+        return conteo(tipo, clave)[1];
+    }
+
+    public <E extends Exception> void recorrer(Lector<E> lector) throws E {
+        for (Map.Entry<Tipo, Map<String, int[]>> porTipo : conteos.entrySet()) {
+            for (Map.Entry<String, int[]> e : porTipo.getValue().entrySet()) {
+                lector.conteo(porTipo.getKey(), e.getKey(), e.getValue()[0], e.getValue()[1]);
+            }
+        }
+    }
+
+    private int[] conteo(Tipo tipo, String clave) {
+        return conteos.get(tipo).getOrDefault(clave(tipo, clave), SIN_TURNOS);
+    }
+
+    private static String clave(Tipo tipo, String clave) {
+        return tipo == Tipo.CLIENTE ? clave : ClaveId.normalizar(clave);
+    }
+}
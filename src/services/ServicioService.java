@@ -11,35 +11,52 @@ package services;
 
 import exceptions.ServicioInvalidoException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import model.Servicio;
+import util.AsignadorIds;
+import util.ClaveId;
+import util.IndiceBusqueda;
+import util.NotificadorCambios;
+import util.ObservadorCambios;
 
 public class ServicioService {
 
     private final List<Servicio> servicios = new ArrayList<>();
-    private int contadorServicios = 1;
-    
+    private final Map<String, Servicio> porId = new HashMap<>();   // clave: ClaveId.normalizar
+    private final IndiceBusqueda<Servicio> porNombre = new IndiceBusqueda<>(Servicio::getNombre);
+    private final AsignadorIds ids = new AsignadorIds("S");
+    private final NotificadorCambios cambios = new NotificadorCambios();
+    private TurnoService turnoService;   // null: sin control de turnos al borrar
+
+    public void agregarObservador(ObservadorCambios observador) {
+        cambios.agregar(observador);
+    }
+
+    // Para no borrar servicios que tienen turnos (ver TurnoService.verificarSinTurnos)
+    public void setTurnoService(TurnoService turnoService) {
+        this.turnoService = turnoService;
+    }
+
+    // Cambia con cada alta, modificación o baja
+    public long getVersion() {
+        return cambios.getVersion();
+    }
+
     public Servicio agregarServicio(Servicio servicio) {
 
-        if (servicio.getPrecioBase() <= 0) {
-            throw new ServicioInvalidoException("El precio no puede ser negativo ni cero.");
-        }
-        if (servicio.getDuracionMinutos() <= 0) {
-            throw new ServicioInvalidoException("La duración debe ser mayor a 0 minutos.");
-        }
-        if (servicio.getNombre() == null || servicio.getNombre().isBlank()) {
-            throw new ServicioInvalidoException("El nombre del servicio no puede estar vacío.");
-        }
+        validarDatos(servicio);
         String idAsignado;
         if (servicio.getId() != null && !servicio.getId().isBlank()) {
             idAsignado = servicio.getId();
-            try {
-                int nro = Integer.parseInt(idAsignado.substring(1));
-                if (nro >= contadorServicios) contadorServicios = nro + 1;
-            } catch (Exception ignore) {}
+            ids.registrarUsado(idAsignado);
         } else {
             idAsignado = generarIdServicio();
         }
+        if (porId.containsKey(ClaveId.normalizar(idAsignado))) {
+            throw new ServicioInvalidoException("Ya existe un servicio con ID: " + idAsignado);
+        }
         Servicio nuevo = new Servicio(
                 idAsignado,
                 servicio.getNombre(),
@@ -47,33 +64,65 @@ public class ServicioService {
                 servicio.getDuracionMinutos()
         );
         servicios.add(nuevo);
+        porId.put(ClaveId.normalizar(idAsignado), nuevo);
+        porNombre.agregar(nuevo);
+        cambios.notificar(ObservadorCambios.Operacion.ALTA, nuevo);
         return nuevo;
     }
 
+    public void validarDatos(Servicio servicio) {
+        if (servicio.getPrecioBase() <= 0) {
+            throw new ServicioInvalidoException("El precio no puede ser negativo ni cero.");
+        }
+        if (servicio.getDuracionMinutos() <= 0) {
+            throw new ServicioInvalidoException("La duración debe ser mayor a 0 minutos.");
+        }
+        if (servicio.getNombre() == null || servicio.getNombre().isBlank()) {
+            throw new ServicioInvalidoException("El nombre del servicio no puede estar vacío.");
+        }
+    }
+
     public Servicio buscarPorId(String id) {
-        return servicios.stream()
-                .filter(s -> s.getId().equalsIgnoreCase(id))
-                .findFirst()
-                .orElseThrow(() ->
-                        new ServicioInvalidoException("Servicio no encontrado" + id));
+        Servicio s = porId.get(ClaveId.normalizar(id));
+        if (s == null) {
+            throw new ServicioInvalidoException("Servicio no encontrado" + id);
+        }
+        return s;
     }
 
+    // Los mejores primero, sin importar acentos ni mayúsculas (ver IndiceBusqueda)
     public List<Servicio> buscarPorNombre(String nombre) {
-        return servicios.stream()
-                .filter(s -> s.getNombre().toLowerCase().contains(nombre.toLowerCase()))
-                .toList();
+        return buscarPorNombre(nombre, Integer.MAX_VALUE);
+    }
+
+    public List<Servicio> buscarPorNombre(String nombre, int maximo) {
+        return porNombre.buscar(nombre, maximo);
     }
 
     public void modificarServicio(String id, String nuevoNombre, Double nuevoPrecio, Integer nuevaDuracion) {
         Servicio s = buscarPorId(id);
 
-        if (nuevoNombre != null) s.setNombre(nuevoNombre);
+        if (nuevoNombre != null) {
+            s.setNombre(nuevoNombre);
+            porNombre.actualizar(s);
+        }
         if (nuevoPrecio != null) s.setPrecioBase(nuevoPrecio);
         if (nuevaDuracion != null) s.setDuracionMinutos(nuevaDuracion);
+        cambios.notificar(ObservadorCambios.Operacion.MODIFICACION, s);
     }
 
     public boolean eliminarServicio(String id) {
-        return servicios.removeIf(s -> s.getId().equalsIgnoreCase(id));
+        Servicio s = porId.get(ClaveId.normalizar(id));
+        if (s == null) return false;
+        if (turnoService != null) {
+            turnoService.verificarServicioSinTurnos(s.getId());
+        }
+
+        porId.remove(ClaveId.normalizar(id));
+        servicios.remove(s);
+        porNombre.quitar(s);
+        cambios.notificar(ObservadorCambios.Operacion.BAJA, s);
+        return true;
     }
 
     public List<Servicio> listarServicios() {
@@ -81,7 +130,20 @@ public class ServicioService {
     }
 
     public String generarIdServicio() {
-        return "S" + (contadorServicios++);
+        String id;
+        do {
+            id = ids.siguiente();
+        } while (porId.containsKey(ClaveId.normalizar(id)));
+        return id;
+    }
+
+    // Número que va a usar el próximo servicio (se guarda para no repetir IDs de servicios borrados)
+    public int getProximoNumeroServicio() {
+        return ids.getProximo();
+    }
+
+    public void ajustarProximoNumeroServicio(int proximo) {
+        ids.ajustarProximo(proximo);
     }
 
 }
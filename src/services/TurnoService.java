@@ -5,104 +5,428 @@
  *
  * <p>También permite generar reportes por día o empleado.</p>
  *
+ * <p>Se puede usar desde varios hilos (varias terminales de recepción).
+ * Reservar, cancelar y finalizar toman el candado de la franja del empleado,
+ * así la verificación de disponibilidad y el alta son atómicas para ese
+ * empleado sin frenar a los demás. Los listados devuelven copias o fotos
+ * inmutables y no bloquean. Los meses del historial se cargan antes de tomar
+ * cualquier franja.</p>
+ *
  * @author Thomas
  */
 package services;
 
+import exceptions.EntidadConTurnosException;
 import exceptions.TurnoNoDisponibleException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import model.Barbero;
 import model.Cliente;
 import model.Empleado;
+import model.Estilista;
 import model.Servicio;
 import model.Turno;
+import util.AsignadorIds;
+import util.ClaveId;
+import util.NotificadorCambios;
+import util.ObservadorCambios;
 
 public class TurnoService {
 
-    private final List<Turno> turnos = new ArrayList<>();
-    private int contadorTurnos = 1;
-    
-    public void registrarTurno(String id,
+    // Horario de atención para sugerir turnos libres
+    private static final LocalTime APERTURA = LocalTime.of(9, 0);
+    private static final LocalTime CIERRE = LocalTime.of(20, 0);
+    private static final int PASO_MINUTOS = 15;
+
+    // Cantidad de candados: los empleados se reparten entre ellos por hash del ID
+    private static final int FRANJAS = 64;
+
+    private final List<Turno> turnos = new ArrayList<>();       // se modifica con synchronized (turnos)
+    private volatile List<Turno> fotoTurnos = List.of();        // copia inmutable para las lecturas
+    private final Map<String, Turno> porId = new ConcurrentHashMap<>();   // clave: ClaveId.normalizar
+    private final AsignadorIds ids = new AsignadorIds("T");
+    private final NotificadorCambios cambios = new NotificadorCambios();
+
+    private final ReentrantLock[] franjas = new ReentrantLock[FRANJAS];
+
+    // Meses guardados que todavía no se leyeron (se cargan al consultarlos)
+    private volatile HistorialTurnos historial;
+    private final Set<YearMonth> mesesSinCargar = new ConcurrentSkipListSet<>();
+    private final Object cargaHistorial = new Object();
+    private final Map<YearMonth, Long> versionesPorMes = new ConcurrentHashMap<>();
+    // Cuántos turnos tiene cada cliente, empleado y servicio en los meses sin cargar (se leen al pedirlos)
+    private final Map<YearMonth, ResumenMes> resumenes = new ConcurrentHashMap<>();
+
+    // Turnos pendientes de cada empleado (por ID normalizado), para controlar superposiciones.
+    // La agenda de un empleado sólo se toca con el candado de su franja.
+    private final Map<String, AgendaEmpleado> agendas = new ConcurrentHashMap<>();
+
+    // Turnos de cada día: las consultas por fecha sólo recorren ese día
+    private final Map<LocalDate, List<Turno>> porDia = new ConcurrentHashMap<>();
+
+    // Turnos de cada cliente (por DNI), empleado y servicio (por ID normalizado), en orden de alta.
+    // Un turno no sale de memoria (cancelar sólo cambia el estado): las colas sólo crecen.
+    private final Map<String, Queue<Turno>> porCliente = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Turno>> porEmpleado = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Turno>> porServicio = new ConcurrentHashMap<>();
+
+    // Totales de los realizados por día, empleado y servicio (para los reportes)
+    private final AgregadosDiarios agregados = new AgregadosDiarios();
+
+    // Totales de los realizados de cada cliente (por DNI), para la ficha del cliente
+    private final Map<String, AcumuladoCliente> acumuladosCliente = new ConcurrentHashMap<>();
+
+    // Los mismos turnos en arreglos primitivos, para reportes de períodos largos
+    private final ColumnasTurnos columnas = new ColumnasTurnos();
+
+    public TurnoService() {
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    public void agregarObservador(ObservadorCambios observador) {
+        cambios.agregar(observador);
+    }
+
+    // Cambia con cada alta, modificación o baja
+    public long getVersion() {
+        return cambios.getVersion();
+    }
+
+    // Como getVersion, pero sólo cuenta los cambios de turnos de ese mes
+    public long getVersionMes(YearMonth mes) {
+        return versionesPorMes.getOrDefault(mes, 0L);
+    }
+
+    // Copia de las versiones de todos los meses (los que no figuran nunca cambiaron)
+    public Map<YearMonth, Long> getVersionesMeses() {
+        return new HashMap<>(versionesPorMes);
+    }
+
+    /**
+     * Indica de dónde leer los meses que no se cargaron al iniciar. Cualquier
+     * consulta que toque uno de esos meses lo carga antes de responder.
+     */
+    public void setHistorial(HistorialTurnos historial, Collection<YearMonth> meses) {
+        synchronized (cargaHistorial) {
+            this.historial = historial;
+            mesesSinCargar.clear();
+            mesesSinCargar.addAll(meses);
+            resumenes.clear();
+        }
+    }
+
+    public boolean hayHistorialSinCargar() {
+        return !mesesSinCargar.isEmpty();
+    }
+
+    public Turno registrarTurno(String id,
+                                Cliente cliente,
+                                Empleado empleado,
+                                Servicio servicio,
+                                LocalDateTime fechaHora) {
+        if (id == null || id.isBlank()) throw new IllegalArgumentException("ID de turno inválido.");
+        return registrar(id, cliente, empleado, servicio, fechaHora);
+    }
+
+    /**
+     * Reserva un turno nuevo y le asigna el ID recién cuando se acepta: un
+     * turno rechazado (horario ocupado, fecha pasada) no gasta un número.
+     */
+    public Turno registrarTurno(Cliente cliente,
+                                Empleado empleado,
+                                Servicio servicio,
+                                LocalDateTime fechaHora) {
+        return registrar(null, cliente, empleado, servicio, fechaHora);
+    }
+
+    // id null: se genera con la franja tomada, después de verificar
+    private Turno registrar(String id,
                             Cliente cliente,
                             Empleado empleado,
                             Servicio servicio,
                             LocalDateTime fechaHora) {
-        if (id != null && id.startsWith("T")) {
-            try {
-                int nro = Integer.parseInt(id.substring(1));
-                if (nro >= contadorTurnos) contadorTurnos = nro + 1;
-            } catch (Exception ignore) {}
+        if (cliente == null) throw new IllegalArgumentException("Cliente inválido.");
+        if (empleado == null) throw new IllegalArgumentException("Empleado inválido.");
+        if (servicio == null) throw new IllegalArgumentException("Servicio inválido.");
+        if (id != null && porId.containsKey(ClaveId.normalizar(id))) {
+            throw new IllegalArgumentException("Ya existe un turno con ID: " + id);
         }
-        Turno t = new Turno(id, cliente, empleado, servicio, fechaHora);
         if (fechaHora.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("La fecha del turno no puede ser anterior a hoy.");
         }
-        if (!estaDisponible(empleado.getId(), fechaHora)) {
-            throw new TurnoNoDisponibleException(
-                    "El empleado " + empleado.getNombre() + " no está disponible en ese horario."
-            );
+        cargarMes(YearMonth.from(fechaHora));
+
+        // verificar y agregar con la franja tomada: otra terminal no puede reservar en el medio
+        Turno t;
+        ReentrantLock franja = franja(empleado.getId());
+        franja.lock();
+        try {
+            if (!agendaLibre(empleado.getId(), fechaHora, servicio.getDuracionMinutos())) {
+                throw new TurnoNoDisponibleException(
+                        "El empleado " + empleado.getNombre() + " no está disponible en ese horario."
+                );
+            }
+            t = new Turno(id != null ? id : generarIdTurno(), cliente, empleado, servicio, fechaHora);
+            if (!agregarEnMemoria(t)) {
+                throw new IllegalArgumentException("Ya existe un turno con ID: " + t.getId());
+            }
+            // recién aceptado: un ID rechazado no adelanta el contador
+            if (id != null) ids.registrarUsado(id);
+        } finally {
+            franja.unlock();
         }
-        turnos.add(t);
+        notificar(ObservadorCambios.Operacion.ALTA, t);
+        return t;
     }
 
-    public boolean cancelarTurno(String id) {
-        for (Turno t : turnos) {
-            if (t.getId().equals(id)) {
-                t.cancelar();
-                return true;
+    /**
+     * Restaura de una vez turnos ya guardados (al cargar archivos o el journal),
+     * con el estado que tenían. No aplica las reglas de un turno nuevo (fecha
+     * futura, disponibilidad): esos turnos ya fueron validados al reservarse.
+     * Los IDs que ya están cargados se ignoran: devuelve los que se agregaron.
+     */
+    public List<Turno> restaurarTurnos(List<Turno> lote) {
+        return restaurarTurnos(lote, true);
+    }
+
+    /**
+     * Como {@link #restaurarTurnos(List)}. Con registrarIds en false los IDs
+     * no mueven el contador: para archivos que tienen guardado el próximo
+     * número (ver {@link #ajustarProximoNumeroTurno}), así no se revisa cada ID.
+     */
+    public List<Turno> restaurarTurnos(List<Turno> lote, boolean registrarIds) {
+        // el mes tiene que estar entero en memoria antes de cambiarlo (después se reescribe completo)
+        for (Turno t : lote) {
+            cargarMes(YearMonth.from(t.getFechaHora()));
+        }
+
+        List<Turno> agregados = new ArrayList<>();
+        for (Turno t : lote) {
+            if (t.getId() == null) continue;
+
+            ReentrantLock franja = franja(t.getEmpleado().getId());
+            franja.lock();
+            boolean agregado;
+            try {
+                agregado = agregarEnMemoria(t);
+                if (agregado && registrarIds) ids.registrarUsado(t.getId());
+            } finally {
+                franja.unlock();
+            }
+            if (agregado) {
+                notificar(ObservadorCambios.Operacion.ALTA, t);
+                agregados.add(t);
             }
         }
-        return false;
+        return agregados;
+    }
+
+    public boolean cancelarTurno(String id) {
+        Turno t = buscarPorId(id);
+        if (t == null) return false;
+
+        ReentrantLock franja = franja(t.getEmpleado().getId());
+        franja.lock();
+        try {
+            desindexar(t);
+            if (t.getEstado() == Turno.Estado.REALIZADO) restarRealizado(t);
+            t.cancelar();
+            columnas.actualizarEstado(t);
+        } finally {
+            franja.unlock();
+        }
+        notificar(ObservadorCambios.Operacion.MODIFICACION, t);
+        return true;
     }
 
     public boolean finalizarTurno(String id) {
-        for (Turno t : turnos) {
-            if (t.getId().equals(id)) {
-                t.realizar();
-                return true;
-            }
+        Turno t = buscarPorId(id);
+        if (t == null) return false;
+
+        ReentrantLock franja = franja(t.getEmpleado().getId());
+        franja.lock();
+        try {
+            desindexar(t);
+            if (t.getEstado() != Turno.Estado.REALIZADO) sumarRealizado(t);
+            t.realizar();
+            columnas.actualizarEstado(t);
+        } finally {
+            franja.unlock();
         }
-        return false;
+        notificar(ObservadorCambios.Operacion.MODIFICACION, t);
+        return true;
     }
 
+    // Todos los turnos, incluido el historial (lo carga si hace falta)
     public List<Turno> listarTurnos() {
-        return turnos;
+        cargarHistorialCompleto();
+        return listarTurnosCargados();
+    }
+
+    /**
+     * Sólo lo que ya está en memoria, sin tocar el disco (para guardar). Es una
+     * foto inmutable: se rearma sólo si hubo altas desde la última lectura.
+     */
+    public List<Turno> listarTurnosCargados() {
+        List<Turno> foto = fotoTurnos;
+        if (foto != null) return foto;
+
+        synchronized (turnos) {
+            if (fotoTurnos == null) fotoTurnos = List.copyOf(turnos);
+            return fotoTurnos;
+        }
     }
 
     public List<Turno> listarPorEmpleado(String empleadoId) {
-        List<Turno> resultado = new ArrayList<>();
-        for (Turno t : turnos) {
-            if (t.getEmpleado().getId().equals(empleadoId)) {
-                resultado.add(t);
-            }
+        return turnosDeEmpleado(empleadoId);
+    }
+
+    // ---- turnos de una entidad, incluido el historial: sólo se cargan los meses donde tiene turnos ----
+
+    public List<Turno> turnosDeCliente(String dni) {
+        return relacionados(porCliente, ResumenMes.Tipo.CLIENTE, dni);
+    }
+
+    public List<Turno> turnosDeEmpleado(String empleadoId) {
+        return relacionados(porEmpleado, ResumenMes.Tipo.EMPLEADO, ClaveId.normalizar(empleadoId));
+    }
+
+    public List<Turno> turnosDeServicio(String servicioId) {
+        return relacionados(porServicio, ResumenMes.Tipo.SERVICIO, ClaveId.normalizar(servicioId));
+    }
+
+    /**
+     * Turnos del cliente en orden cronológico y totales de sus visitas. Los
+     * totales se llevan al día con cada turno realizado: sólo se cargan los
+     * meses del historial donde el cliente tiene turnos y sólo se ordenan los
+     * turnos de ese cliente.
+     */
+    public FichaCliente fichaCliente(Cliente cliente) {
+        // el acumulado sólo suma lo que está en memoria: turnosDeCliente carga antes los meses del cliente
+        List<Turno> delCliente = turnosDeCliente(cliente.getDni());
+        delCliente.sort(Comparator.comparing(Turno::getFechaHora).thenComparing(Turno::getId));
+
+        AcumuladoCliente acumulado = acumuladosCliente.get(cliente.getDni());
+        if (acumulado == null) acumulado = new AcumuladoCliente();
+        return acumulado.ficha(cliente, delCliente);
+    }
+
+    /**
+     * Cancela los que siguen pendientes (ej. los turnos de un empleado que
+     * deja de trabajar). Devuelve cuántos canceló.
+     */
+    public int cancelarPendientes(List<Turno> lista) {
+        int cancelados = 0;
+        for (Turno t : lista) {
+            if (t.getEstado() == Turno.Estado.PENDIENTE && cancelarTurno(t.getId())) cancelados++;
         }
-        return resultado;
+        return cancelados;
     }
 
-    public List<Turno> listarPorFecha(LocalDate fecha) {
-        List<Turno> resultado = new ArrayList<>();
-        for (Turno t : turnos) {
-            if (t.getFechaHora().toLocalDate().equals(fecha)) {
-                resultado.add(t);
+    // ---- para las bajas de clientes, servicios y empleados ----
+
+    void verificarClienteSinTurnos(String dni) {
+        verificarSinTurnos("el cliente", porCliente, ResumenMes.Tipo.CLIENTE, dni);
+    }
+
+    void verificarEmpleadoSinTurnos(String empleadoId) {
+        verificarSinTurnos("el empleado", porEmpleado, ResumenMes.Tipo.EMPLEADO, ClaveId.normalizar(empleadoId));
+    }
+
+    void verificarServicioSinTurnos(String servicioId) {
+        verificarSinTurnos("el servicio", porServicio, ResumenMes.Tipo.SERVICIO, ClaveId.normalizar(servicioId));
+    }
+
+    /**
+     * Un turno que apunta a algo borrado se pierde al volver a cargar los
+     * archivos, así que no se puede borrar nada que tenga turnos (ni siquiera
+     * realizados o cancelados). Los meses sin cargar se cuentan con su resumen,
+     * sin leerlos.
+     */
+    private void verificarSinTurnos(String descripcion, Map<String, Queue<Turno>> indice,
+                                    ResumenMes.Tipo tipo, String clave) {
+        int total = 0;
+        int pendientes = 0;
+        // primero el historial: si un mes se carga mientras tanto se cuenta dos veces, nunca cero
+        for (YearMonth mes : new ArrayList<>(mesesSinCargar)) {
+            ResumenMes r = resumen(mes);
+            if (r == null) {
+                cargarMes(mes);   // datos sin resumen: no queda otra que leer el mes
+                continue;
+            }
+            total += r.turnos(tipo, clave);
+            pendientes += r.pendientes(tipo, clave);
+        }
+        Queue<Turno> cargados = indice.get(clave);
+        if (cargados != null) {
+            for (Turno t : cargados) {
+                total++;
+                if (t.getEstado() == Turno.Estado.PENDIENTE) pendientes++;
             }
         }
-        return resultado;
+        if (total == 0) return;
+
+        throw new EntidadConTurnosException(
+                "No se puede eliminar " + descripcion + ": tiene " + total
+                        + " turno(s), " + pendientes + " pendiente(s)."
+        );
+    }
+
+    public List<Turno> listarPorFecha(LocalDate fecha) {
+        return new ArrayList<>(turnosDelDia(fecha));
     }
 
     // Ingresos para una fecha
     public double calcularIngresos(LocalDate fecha) {
-        double total = 0;
-        for (Turno t : turnos) {
-            if (t.getFechaHora().toLocalDate().equals(fecha)
-                    && t.getEstado() == Turno.Estado.REALIZADO) {
-                total += t.getServicio().getPrecioBase();
-            }
-        }
-        return total;
+        return reporteDiario(fecha).getIngresos();
+    }
+
+    /**
+     * Ingresos de un período, desde y hasta incluidos (semana, mes, año...).
+     * No recorre los días: sale de las sumas acumuladas por día de cada servicio.
+     */
+    public double calcularIngresos(LocalDate desde, LocalDate hasta) {
+        cargarMeses(desde, hasta);
+        return agregados.ingresos(desde, hasta);
+    }
+
+    // Ingresos de cada empleado en el período (sólo los que tuvieron turnos realizados)
+    public Map<Empleado, Double> ingresosPorEmpleado(LocalDate desde, LocalDate hasta) {
+        cargarMeses(desde, hasta);
+        return agregados.ingresosPorEmpleado(desde, hasta);
+    }
+
+    // Ingresos de cada servicio en el período (sólo los que se realizaron)
+    public Map<Servicio, Double> ingresosPorServicio(LocalDate desde, LocalDate hasta) {
+        cargarMeses(desde, hasta);
+        return agregados.ingresosPorServicio(desde, hasta);
+    }
+
+    /**
+     * Vista por columnas de los turnos para analizar períodos largos (ver
+     * {@link ColumnasTurnos}). Antes carga los meses del período que falten;
+     * las consultas tienen que usar el mismo período o uno contenido en él.
+     */
+    public ColumnasTurnos columnas(LocalDate desde, LocalDate hasta) {
+        cargarMeses(desde, hasta);
+        return columnas;
     }
 
     // Ingresos del día
@@ -111,33 +435,94 @@ public class TurnoService {
         return calcularIngresos(hoy);
     }
 
+    /**
+     * Todas las métricas del día (ingresos, minutos, ranking) de una vez.
+     * Los métodos de abajo que devuelven Map con claves de texto se arman a
+     * partir de este reporte.
+     */
+    public ReporteDiario reporteDiario(LocalDate fecha) {
+        cargarMes(YearMonth.from(fecha));
+        return ReporteDiario.armar(fecha, agregados.delDia(fecha));
+    }
+
     //Seccion reportes
-    // Verificar disponibilidad del empleado
+    // Verificar disponibilidad del empleado: que ningún turno pendiente esté en curso a esa hora
     public boolean estaDisponible(String empleadoId, LocalDateTime fechaHora) {
-        for (Turno t : turnos) {
-            if (t.getEmpleado().getId().equals(empleadoId)
-                    && t.getFechaHora().equals(fechaHora)
-                    && t.getEstado() == Turno.Estado.PENDIENTE) {
-                return false;
-            }
+        return estaDisponible(empleadoId, fechaHora, 0);
+    }
+
+    // Que el horario [fechaHora, fechaHora + duración) no choque con ningún turno pendiente
+    public boolean estaDisponible(String empleadoId, LocalDateTime fechaHora, int duracionMinutos) {
+        cargarMes(YearMonth.from(fechaHora));
+        ReentrantLock franja = franja(empleadoId);
+        franja.lock();
+        try {
+            return agendaLibre(empleadoId, fechaHora, duracionMinutos);
+        } finally {
+            franja.unlock();
         }
-        return true;
     }
 
-    //Ingresos por empleado en una fecha
-    public Map<String, Double> ingresosPorEmpleado(LocalDate fecha) {
-        Map<String, Double> mapa = new HashMap<>();
+    /**
+     * Próximos {@code cantidad} horarios libres para el servicio entre desde y
+     * hasta, entre los empleados dados. Con tipoEmpleado ("Barbero" o
+     * "Estilista") se filtran los empleados; null o vacío = cualquiera.
+     *
+     * <p>Cada empleado aporta sus primeros huecos recorriendo su agenda, y
+     * después se quedan los más tempranos de todos.</p>
+     */
+    public List<HuecoLibre> proximosHuecos(List<Empleado> empleados, Servicio servicio,
+                                           LocalDateTime desde, LocalDateTime hasta,
+                                           String tipoEmpleado, int cantidad) {
+        if (servicio == null) throw new IllegalArgumentException("Servicio inválido.");
+        if (cantidad <= 0) throw new IllegalArgumentException("La cantidad debe ser mayor a 0.");
 
-        for (Turno t : turnos) {
-            if (t.getEstado() == Turno.Estado.REALIZADO
-                    && t.getFechaHora().toLocalDate().equals(fecha)) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (desde.isBefore(ahora)) desde = ahora;
 
-                String key = t.getEmpleado().getId() + " - " + t.getEmpleado().getNombre();
-                double importe = t.getServicio().getPrecioBase();
+        List<HuecoLibre> huecos = new ArrayList<>();
+        if (!desde.isBefore(hasta)) return huecos;
 
-                mapa.merge(key, importe, Double::sum);
+        cargarMeses(desde.toLocalDate(), hasta.toLocalDate());
+
+        int duracion = servicio.getDuracionMinutos();
+        AgendaEmpleado vacia = new AgendaEmpleado();
+        for (Empleado e : empleados) {
+            if (!esDelTipo(e, tipoEmpleado)) continue;
+
+            List<LocalDateTime> libres;
+            ReentrantLock franja = franja(e.getId());
+            franja.lock();
+            try {
+                AgendaEmpleado agenda = agendas.getOrDefault(ClaveId.normalizar(e.getId()), vacia);
+                libres = agenda.primerosLibres(desde, hasta, duracion, cantidad, APERTURA, CIERRE, PASO_MINUTOS);
+            } finally {
+                franja.unlock();
+            }
+            for (LocalDateTime inicio : libres) {
+                huecos.add(new HuecoLibre(e, inicio, inicio.plusMinutes(duracion)));
             }
         }
+
+        huecos.sort(Comparator.comparing(HuecoLibre::getInicio));
+        return huecos.size() > cantidad ? new ArrayList<>(huecos.subList(0, cantidad)) : huecos;
+    }
+
+    private static boolean esDelTipo(Empleado e, String tipo) {
+        if (tipo == null || tipo.isBlank()) return true;
+        if (tipo.equalsIgnoreCase("Barbero")) return e instanceof Barbero;
+        if (tipo.equalsIgnoreCase("Estilista")) return e instanceof Estilista;
+        throw new IllegalArgumentException("Tipo de empleado inválido: " + tipo);
+    }
+
+    //Ingresos por empleado en una fecha
+    public Map<String, Double> ingresosPorEmpleado(LocalDate fecha) {
+        Map<String, Double> mapa = new HashMap<>();
+
+        reporteDiario(fecha).getIngresosPorEmpleado().forEach((empleado, importe) -> {
+            String key = empleado.getId() + " - " + empleado.getNombre();
+            mapa.merge(key, importe, Double::sum);
+        });
         return mapa;
     }
 
@@ -145,16 +530,10 @@ public class TurnoService {
     public Map<String, Double> ingresosPorServicio(LocalDate fecha) {
         Map<String, Double> mapa = new HashMap<>();
 
-        for (Turno t : turnos) {
-            if (t.getEstado() == Turno.Estado.REALIZADO
-                    && t.getFechaHora().toLocalDate().equals(fecha)) {
-
-                String key = t.getServicio().getNombre();
-                double importe = t.getServicio().getPrecioBase();
-
-                mapa.merge(key, importe, Double::sum);
-            }
-        }
+        reporteDiario(fecha).getIngresosPorServicio().forEach((servicio, importe) -> {
+            String key = servicio.getNombre();
+            mapa.merge(key, importe, Double::sum);
+        });
         return mapa;
     }
 
@@ -162,16 +541,10 @@ public class TurnoService {
     public Map<String, Integer> minutosTrabajadosPorEmpleado(LocalDate fecha) {
         Map<String, Integer> mapa = new HashMap<>();
 
-        for (Turno t : turnos) {
-            if (t.getEstado() == Turno.Estado.REALIZADO
-                    && t.getFechaHora().toLocalDate().equals(fecha)) {
-
-                String key = t.getEmpleado().getId() + " - " + t.getEmpleado().getNombre();
-                int minutos = t.getServicio().getDuracionMinutos();
-
-                mapa.merge(key, minutos, Integer::sum);
-            }
-        }
+        reporteDiario(fecha).getMinutosPorEmpleado().forEach((empleado, minutos) -> {
+            String key = empleado.getId() + " - " + empleado.getNombre();
+            mapa.merge(key, minutos, Integer::sum);
+        });
         return mapa;
     }
 
@@ -179,27 +552,197 @@ public class TurnoService {
     public Map<String, Long> rankingServicios(LocalDate fecha) {
         Map<String, Long> mapa = new HashMap<>();
 
-        for (Turno t : turnos) {
-            if (t.getEstado() == Turno.Estado.REALIZADO
-                    && t.getFechaHora().toLocalDate().equals(fecha)) {
-
-                String key = t.getServicio().getNombre();
-                mapa.merge(key, 1L, Long::sum);
-            }
-        }
+        reporteDiario(fecha).getCantidadPorServicio().forEach((servicio, cantidad) -> {
+            String key = servicio.getNombre();
+            mapa.merge(key, (long) cantidad, Long::sum);
+        });
         return mapa;
     }
 
+    /**
+     * Si ya hay un turno con ese ID. El historial se lee (entero: el ID no dice
+     * de qué mes es) sólo si el ID no está en memoria y pudo haberlo entregado
+     * el contador; un "T" + número que todavía no se entregó no existe.
+     */
+    public boolean existeTurno(String id) {
+        if (porId.containsKey(ClaveId.normalizar(id))) return true;
+        return ids.puedeEstarUsado(id) && buscarPorId(id) != null;
+    }
+
     public Turno buscarPorId(String id) {
-        for (Turno t : turnos) {
-            if (t.getId().equalsIgnoreCase(id)) {
-                return t;
+        Turno t = porId.get(ClaveId.normalizar(id));
+        // el ID no dice de qué mes es: si no está en memoria, se busca en el historial
+        if (t == null && hayHistorialSinCargar()) {
+            cargarHistorialCompleto();
+            t = porId.get(ClaveId.normalizar(id));
+        }
+        return t;
+    }
+
+    /**
+     * Como {@link #buscarPorId(String)}, para cuando se sabe de qué mes es el
+     * turno (ej. al reaplicar el journal): sólo se carga ese mes, no todo el
+     * historial.
+     */
+    public Turno buscarPorId(String id, YearMonth mes) {
+        cargarMes(mes);
+        return porId.get(ClaveId.normalizar(id));
+    }
+
+    // Sin ninguna franja tomada: los observadores (journal, auditoría) pueden tardar
+    // y no deben frenar las reservas de los empleados de esa franja
+    private void notificar(ObservadorCambios.Operacion operacion, Turno t) {
+        versionesPorMes.merge(YearMonth.from(t.getFechaHora()), 1L, Long::sum);
+        cambios.notificar(operacion, t);
+    }
+
+    // Nunca se llama con una franja tomada: cargar un mes toma las franjas de sus empleados
+    private void cargarMes(YearMonth mes) {
+        if (!mesesSinCargar.contains(mes)) return;
+
+        synchronized (cargaHistorial) {
+            if (!mesesSinCargar.contains(mes)) return;   // lo cargó otro hilo mientras esperábamos
+
+            agregarHistorial(historial.cargarMes(mes));
+            // recién ahora: los demás hilos no deben verlo como cargado a medias
+            mesesSinCargar.remove(mes);
+            resumenes.remove(mes);
+        }
+    }
+
+    private void cargarMeses(LocalDate desde, LocalDate hasta) {
+        // se recorren los meses pendientes (pocos), no todos los meses del rango
+        YearMonth primero = YearMonth.from(desde);
+        YearMonth ultimo = YearMonth.from(hasta);
+        for (YearMonth mes : new ArrayList<>(mesesSinCargar)) {
+            if (!mes.isBefore(primero) && !mes.isAfter(ultimo)) cargarMes(mes);
+        }
+    }
+
+    // Los meses sin cargar donde la clave tiene turnos (y los que no tienen resumen)
+    private void cargarMesesDe(ResumenMes.Tipo tipo, String clave) {
+        for (YearMonth mes : new ArrayList<>(mesesSinCargar)) {
+            ResumenMes r = resumen(mes);
+            if (r == null || r.turnos(tipo, clave) > 0) cargarMes(mes);
+        }
+    }
+
+    // null si el mes no tiene resumen (o ya se cargó)
+    private ResumenMes resumen(YearMonth mes) {
+        HistorialTurnos h = historial;
+        if (h == null || !mesesSinCargar.contains(mes)) return null;
+        return resumenes.computeIfAbsent(mes, h::resumenMes);
+    }
+
+    private void cargarHistorialCompleto() {
+        for (YearMonth mes : new ArrayList<>(mesesSinCargar)) {
+            cargarMes(mes);
+        }
+    }
+
+    // Lo leído del historial ya está en disco tal cual: no cuenta como cambio,
+    // y sus IDs ya están por debajo del próximo número guardado
+    private void agregarHistorial(List<Turno> lote) {
+        for (Turno t : lote) {
+            if (t.getId() == null) continue;
+
+            ReentrantLock franja = franja(t.getEmpleado().getId());
+            franja.lock();
+            try {
+                agregarEnMemoria(t);
+            } finally {
+                franja.unlock();
             }
         }
-        return null;
+    }
+
+    /**
+     * Único punto por donde entra un turno a memoria (la fecha de un turno no
+     * cambia). Se llama con la franja del empleado tomada. Devuelve false si
+     * ya había un turno con ese ID.
+     */
+    private boolean agregarEnMemoria(Turno t) {
+        if (porId.putIfAbsent(ClaveId.normalizar(t.getId()), t) != null) return false;
+
+        synchronized (turnos) {
+            turnos.add(t);
+            fotoTurnos = null;
+        }
+        porDia.computeIfAbsent(t.getFechaHora().toLocalDate(), k -> new CopyOnWriteArrayList<>()).add(t);
+        porCliente.computeIfAbsent(t.getCliente().getDni(), k -> new ConcurrentLinkedQueue<>()).add(t);
+        porEmpleado.computeIfAbsent(ClaveId.normalizar(t.getEmpleado().getId()), k -> new ConcurrentLinkedQueue<>()).add(t);
+        porServicio.computeIfAbsent(ClaveId.normalizar(t.getServicio().getId()), k -> new ConcurrentLinkedQueue<>()).add(t);
+        indexar(t);
+        if (t.getEstado() == Turno.Estado.REALIZADO) sumarRealizado(t);
+        columnas.agregar(t);
+        return true;
+    }
+
+    private void sumarRealizado(Turno t) {
+        agregados.sumar(t);
+        acumuladosCliente.computeIfAbsent(t.getCliente().getDni(), k -> new AcumuladoCliente()).sumar(t);
+    }
+
+    private void restarRealizado(Turno t) {
+        agregados.restar(t);
+        AcumuladoCliente acumulado = acumuladosCliente.get(t.getCliente().getDni());
+        if (acumulado != null) acumulado.restar(t);
+    }
+
+    private ReentrantLock franja(String empleadoId) {
+        return franjas[Math.floorMod(ClaveId.normalizar(empleadoId).hashCode(), FRANJAS)];
+    }
+
+    // Con la franja del empleado tomada
+    private boolean agendaLibre(String empleadoId, LocalDateTime fechaHora, int duracionMinutos) {
+        AgendaEmpleado agenda = agendas.get(ClaveId.normalizar(empleadoId));
+        return agenda == null || agenda.estaLibre(fechaHora, duracionMinutos);
+    }
+
+    private List<Turno> relacionados(Map<String, Queue<Turno>> indice, ResumenMes.Tipo tipo, String clave) {
+        cargarMesesDe(tipo, clave);
+        Queue<Turno> lista = indice.get(clave);
+        return lista == null ? new ArrayList<>() : new ArrayList<>(lista);
+    }
+
+    private List<Turno> turnosDelDia(LocalDate fecha) {
+        cargarMes(YearMonth.from(fecha));
+        return porDia.getOrDefault(fecha, List.of());
+    }
+
+    private void indexar(Turno t) {
+        if (t.getEstado() != Turno.Estado.PENDIENTE) return;
+        agendas.computeIfAbsent(ClaveId.normalizar(t.getEmpleado().getId()), k -> new AgendaEmpleado()).agregar(t);
+    }
+
+    private void desindexar(Turno t) {
+        String clave = ClaveId.normalizar(t.getEmpleado().getId());
+        AgendaEmpleado agenda = agendas.get(clave);
+        if (agenda == null) return;
+
+        agenda.quitar(t);
+        if (agenda.estaVacia()) agendas.remove(clave);
+    }
+
+    // Número que va a usar el próximo turno (se guarda para no tener que leer todo el historial)
+    public int getProximoNumeroTurno() {
+        return ids.getProximo();
+    }
+
+    public void ajustarProximoNumeroTurno(int proximo) {
+        ids.ajustarProximo(proximo);
     }
 
     public String generarIdTurno() {
-        return "T" + (contadorTurnos++);
+        String id;
+        do {
+            id = ids.siguiente();
+        } while (porId.containsKey(ClaveId.normalizar(id)));
+        return id;
+    }
+
+    // IDs para altas masivas (ver ImportadorCsv); liberar la reserva al terminar
+    public AsignadorIds.Reserva reservarIdsTurno(int tamanioBloque) {
+        return ids.reservar(tamanioBloque);
     }
 }
@@ -0,0 +1,98 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reparte IDs con prefijo ("T1", "T2", ...) sin repetir, aunque los pidan
+ * varios hilos a la vez: el próximo número es un AtomicInteger.
+ *
+ * <p>La persistencia guarda el próximo número (la marca más alta que se
+ * entregó). Así al iniciar no hace falta recorrer todos los IDs para saber por
+ * dónde seguir, y no se vuelve a dar el ID de algo que se borró.</p>
+ */
+public class AsignadorIds {
+
+    private final String prefijo;
+    private final AtomicInteger proximo = new AtomicInteger(1);
+
+    public AsignadorIds(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    public String siguiente() {
+        return prefijo + proximo.getAndIncrement();
+    }
+
+    /**
+     * Para altas masivas: los IDs se toman del contador compartido de a
+     * {@code tamanioBloque} y después se reparten localmente.
+     */
+    public Reserva reservar(int tamanioBloque) {
+        if (tamanioBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño del bloque debe ser mayor a 0.");
+        }
+        return new Reserva(tamanioBloque);
+    }
+
+    // Un ID que viene de afuera (archivo, journal, importación): los próximos tienen que ser mayores
+    public void registrarUsado(String id) {
+        int nro = numero(id);
+        if (nro >= 0) ajustarProximo(nro + 1);
+    }
+
+    // false si es prefijo + número y ese número todavía no se entregó ni se registró
+    public boolean puedeEstarUsado(String id) {
+        int nro = numero(id);
+        return nro < 0 || nro < proximo.get();
+    }
+
+    public int getProximo() {
+        return proximo.get();
+    }
+
+    public void ajustarProximo(int proximo) {
+        this.proximo.accumulateAndGet(proximo, Math::max);
+    }
+
+    // Número del ID si es prefijo + dígitos, -1 si no (sin substring ni excepciones: se llama por cada ID leído)
+    private int numero(String id) {
+        int largo = prefijo.length();
+        if (id == null || id.length() <= largo || !id.regionMatches(true, 0, prefijo, 0, largo)) return -1;
+
+        long nro = 0;
+        for (int i = largo; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            nro = nro * 10 + (c - '0');
+            if (nro >= Integer.MAX_VALUE) return -1;
+        }
+        return (int) nro;
+    }
+
+    /** IDs reservados por bloques. La usa un solo hilo (el que hace la importación). */
+    public final class Reserva {
+
+        private final int tamanioBloque;
+        private int actual;
+        private int fin;
+
+        private Reserva(int tamanioBloque) {
+            this.tamanioBloque = tamanioBloque;
+        }
+
+        public String siguiente() {
+            if (actual == fin) {
+                actual = proximo.getAndAdd(tamanioBloque);
+                fin = actual + tamanioBloque;
+            }
+            return prefijo + (actual++);
+        }
+
+        // Devuelve los números sin usar del último bloque, si nadie pidió otros después
+        public void liberar() {
+            if (actual < fin && proximo.compareAndSet(fin, actual)) {
+                fin = actual;
+            }
+        }
+    }
+}
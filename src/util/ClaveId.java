@@ -0,0 +1,17 @@
+package util;
+
+import java.util.Locale;
+
+/**
+ * Los IDs se buscan sin distinguir mayúsculas ("t12" encuentra a "T12").
+ * Los índices por ID de los services usan esta forma normalizada como clave.
+ */
+public final class ClaveId {
+
+    private ClaveId() {
+    }
+
+    public static String normalizar(String id) {
+        return id == null ? null : id.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,338 @@
+package util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice para buscar por nombre mientras se escribe, sin recorrer todos los
+ * elementos en cada consulta.
+ *
+ * <p>El texto de cada elemento se pasa a minúsculas sin acentos y se parte en
+ * palabras. Las palabras están en un TreeMap (las que empiezan con lo escrito
+ * son un subMap) y cada palabra está además en un índice de trigramas, para
+ * encontrar lo escrito en el medio de una palabra ("ria" en "maría"). Cada
+ * palabra guarda los números de los elementos que la tienen en un arreglo
+ * ordenado, así una consulta recorre enteros y no objetos.</p>
+ *
+ * <p>Cada palabra de la consulta tiene que aparecer en el elemento. Puntaje
+ * por palabra: 3 si coincide entera, 2 si es el comienzo, 1 si está en el
+ * medio (sólo para lo escrito de 3 letras o más). Los resultados van de mayor
+ * a menor puntaje; a igual puntaje primero los de menos palabras y después
+ * los más viejos.</p>
+ *
+ * <p>Se actualiza de a un elemento: agregar, quitar y actualizar (después de
+ * cambiar el texto). Los elementos se comparan con equals, así que la clave
+ * (DNI, ID) no tiene que cambiar mientras estén en el índice.</p>
+ */
+public class IndiceBusqueda<T> {
+
+    private static final int COINCIDE = 3;
+    private static final int EMPIEZA = 2;
+    private static final int CONTIENE = 1;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}");
+
+    private final Function<T, String> texto;
+
+    private final TreeMap<String, Numeros> porPalabra = new TreeMap<>();
+    private final Map<String, Set<String>> palabrasPorTrigrama = new HashMap<>();
+
+    // Cada elemento tiene un número fijo (su orden de alta); los de los borrados no se reusan
+    private final Map<T, Integer> numeroDe = new HashMap<>();
+    private final List<T> elementos = new ArrayList<>();
+    private final List<String[]> palabrasDe = new ArrayList<>();
+
+    public IndiceBusqueda(Function<T, String> texto) {
+        this.texto = texto;
+    }
+
+    public void agregar(T elemento) {
+        if (numeroDe.containsKey(elemento)) return;
+
+        int n = elementos.size();
+        numeroDe.put(elemento, n);
+        elementos.add(elemento);
+        palabrasDe.add(null);
+        indexar(n, elemento);
+    }
+
+    public void quitar(T elemento) {
+        Integer n = numeroDe.remove(elemento);
+        if (n == null) return;
+
+        desindexar(n);
+        elementos.set(n, null);
+    }
+
+    // Vuelve a leer el texto del elemento (llamar después de modificarlo); conserva su antigüedad
+    public void actualizar(T elemento) {
+        Integer n = numeroDe.get(elemento);
+        if (n == null) {
+            agregar(elemento);
+            return;
+        }
+        desindexar(n);
+        indexar(n, elemento);
+    }
+
+    public int cantidad() {
+        return numeroDe.size();
+    }
+
+    /**
+     * Los {@code maximo} elementos que mejor coinciden con la consulta. Sólo se
+     * recorren los candidatos de la palabra buscada más selectiva, no todos
+     * los elementos.
+     */
+    public List<T> buscar(String consulta, int maximo) {
+        String[] buscadas = palabras(consulta);
+        if (buscadas.length == 0 || maximo <= 0) return new ArrayList<>();
+
+        // palabras del índice que sirven para cada palabra buscada, con su puntaje
+        List<Map<String, Integer>> porBuscada = new ArrayList<>();
+        for (String b : buscadas) {
+            Map<String, Integer> coincidencias = coincidencias(b);
+            if (coincidencias.isEmpty()) return new ArrayList<>();
+            porBuscada.add(coincidencias);
+        }
+        // primero la más selectiva: sus elementos son los únicos candidatos
+        porBuscada.sort((a, b) -> Long.compare(apariciones(a), apariciones(b)));
+
+        // candidato -> mejor puntaje de la primera palabra
+        Map<Integer, Integer> puntaje = new HashMap<>();
+        for (Map.Entry<String, Integer> e : porBuscada.get(0).entrySet()) {
+            int p = e.getValue();
+            Numeros numeros = porPalabra.get(e.getKey());
+            for (int k = 0; k < numeros.cantidad; k++) {
+                puntaje.merge(numeros.valores[k], p, Math::max);
+            }
+        }
+
+        // las demás se revisan con las palabras de cada candidato (pocas), no con sus listas
+        int[] candidatos = new int[puntaje.size()];
+        int[] puntos = new int[puntaje.size()];
+        int cantidad = 0;
+        for (Map.Entry<Integer, Integer> e : puntaje.entrySet()) {
+            int n = e.getKey();
+            int total = e.getValue();
+            for (int i = 1; i < porBuscada.size() && total > 0; i++) {
+                int mejor = 0;
+                for (String palabra : palabrasDe.get(n)) {
+                    mejor = Math.max(mejor, porBuscada.get(i).getOrDefault(palabra, 0));
+                }
+                total = mejor == 0 ? 0 : total + mejor;
+            }
+            if (total == 0) continue;
+            candidatos[cantidad] = n;
+            puntos[cantidad] = total;
+            cantidad++;
+        }
+
+        return mejores(candidatos, puntos, cantidad, maximo);
+    }
+
+    /** Minúsculas, sin acentos ni diéresis: "Muñoz Pérez" -> "munoz perez". */
+    public static String normalizar(String s) {
+        if (s == null) return "";
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 127) {
+                String sinMarcas = MARCAS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+                return sinMarcas.toLowerCase(Locale.ROOT);
+            }
+        }
+        return s.toLowerCase(Locale.ROOT);   // sin acentos posibles: no hace falta descomponer
+    }
+
+    private void indexar(int n, T elemento) {
+        String[] palabras = palabras(texto.apply(elemento));
+        palabrasDe.set(n, palabras);
+        for (String p : palabras) {
+            Numeros conPalabra = porPalabra.get(p);
+            if (conPalabra == null) {
+                conPalabra = new Numeros();
+                porPalabra.put(p, conPalabra);
+                for (String tri : trigramas(p)) {
+                    palabrasPorTrigrama.computeIfAbsent(tri, k -> new HashSet<>()).add(p);
+                }
+            }
+            conPalabra.agregar(n);
+        }
+    }
+
+    private void desindexar(int n) {
+        for (String p : palabrasDe.get(n)) {
+            Numeros conPalabra = porPalabra.get(p);
+            conPalabra.quitar(n);
+            if (conPalabra.cantidad > 0) continue;
+
+            porPalabra.remove(p);
+            for (String tri : trigramas(p)) {
+                Set<String> conTrigrama = palabrasPorTrigrama.get(tri);
+                conTrigrama.remove(p);
+                if (conTrigrama.isEmpty()) palabrasPorTrigrama.remove(tri);
+            }
+        }
+        palabrasDe.set(n, null);
+    }
+
+    // Palabras del índice que coinciden con una buscada, y el puntaje de cada una
+    private Map<String, Integer> coincidencias(String buscada) {
+        Map<String, Integer> coincidencias = new HashMap<>();
+
+        for (String palabra : porPalabra.subMap(buscada, true, buscada + Character.MAX_VALUE, false).keySet()) {
+            coincidencias.put(palabra, palabra.length() == buscada.length() ? COINCIDE : EMPIEZA);
+        }
+
+        if (buscada.length() >= 3) {
+            for (String palabra : palabrasConTrigramas(buscada)) {
+                if (!palabra.startsWith(buscada) && palabra.contains(buscada)) {
+                    coincidencias.put(palabra, CONTIENE);
+                }
+            }
+        }
+        return coincidencias;
+    }
+
+    // Palabras que tienen todos los trigramas de la buscada (después se revisa si la contienen)
+    private Set<String> palabrasConTrigramas(String buscada) {
+        List<Set<String>> conjuntos = new ArrayList<>();
+        for (String tri : trigramas(buscada)) {
+            Set<String> conTrigrama = palabrasPorTrigrama.get(tri);
+            if (conTrigrama == null) return Set.of();
+            conjuntos.add(conTrigrama);
+        }
+        conjuntos.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Set<String> resultado = new HashSet<>(conjuntos.get(0));
+        for (int i = 1; i < conjuntos.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(conjuntos.get(i));
+        }
+        return resultado;
+    }
+
+    private long apariciones(Map<String, Integer> coincidencias) {
+        long suma = 0;
+        for (String palabra : coincidencias.keySet()) {
+            suma += porPalabra.get(palabra).cantidad;
+        }
+        return suma;
+    }
+
+    // Los candidatos ordenados; si son muchos se eligen con un heap de tamaño maximo
+    private List<T> mejores(int[] candidatos, int[] puntos, int cantidad, int maximo) {
+        // el heap guarda posiciones en candidatos/puntos
+        int[] heap = new int[Math.min(maximo, cantidad)];
+        int enHeap = 0;
+
+        for (int k = 0; k < cantidad; k++) {
+            if (enHeap < heap.length) {
+                heap[enHeap] = k;
+                subir(heap, enHeap++, candidatos, puntos);
+            } else if (antes(k, heap[0], candidatos, puntos)) {
+                heap[0] = k;
+                bajar(heap, enHeap, candidatos, puntos);
+            }
+        }
+
+        Integer[] orden = new Integer[enHeap];
+        for (int i = 0; i < enHeap; i++) orden[i] = heap[i];
+        Arrays.sort(orden, (a, b) -> antes(a, b, candidatos, puntos) ? -1 : antes(b, a, candidatos, puntos) ? 1 : 0);
+
+        List<T> resultado = new ArrayList<>(enHeap);
+        for (int k : orden) resultado.add(elementos.get(candidatos[k]));
+        return resultado;
+    }
+
+    // true si el candidato a va antes que el b en los resultados
+    private boolean antes(int a, int b, int[] candidatos, int[] puntos) {
+        if (puntos[a] != puntos[b]) return puntos[a] > puntos[b];
+        int largoA = palabrasDe.get(candidatos[a]).length;
+        int largoB = palabrasDe.get(candidatos[b]).length;
+        if (largoA != largoB) return largoA < largoB;
+        return candidatos[a] < candidatos[b];
+    }
+
+    // heap[0] es el peor de los elegidos, el primero en salir si aparece uno mejor
+    private void subir(int[] heap, int i, int[] candidatos, int[] puntos) {
+        while (i > 0) {
+            int padre = (i - 1) / 2;
+            if (!antes(heap[padre], heap[i], candidatos, puntos)) break;
+            int aux = heap[padre]; heap[padre] = heap[i]; heap[i] = aux;
+            i = padre;
+        }
+    }
+
+    private void bajar(int[] heap, int tamanio, int[] candidatos, int[] puntos) {
+        int i = 0;
+        while (true) {
+            int peor = i;
+            int izq = 2 * i + 1;
+            int der = izq + 1;
+            if (izq < tamanio && antes(heap[peor], heap[izq], candidatos, puntos)) peor = izq;
+            if (der < tamanio && antes(heap[peor], heap[der], candidatos, puntos)) peor = der;
+            if (peor == i) return;
+            int aux = heap[peor]; heap[peor] = heap[i]; heap[i] = aux;
+            i = peor;
+        }
+    }
+
+    // Palabras distintas del texto normalizado; separa todo lo que no es letra ni número
+    private static String[] palabras(String s) {
+        String t = normalizar(s);
+        Set<String> distintas = new LinkedHashSet<>();
+        int inicio = -1;
+        for (int i = 0; i <= t.length(); i++) {
+            boolean esParte = i < t.length() && Character.isLetterOrDigit(t.charAt(i));
+            if (esParte && inicio < 0) {
+                inicio = i;
+            } else if (!esParte && inicio >= 0) {
+                distintas.add(t.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return distintas.toArray(new String[0]);
+    }
+
+    private static Set<String> trigramas(String palabra) {
+        Set<String> tris = new HashSet<>();
+        for (int i = 0; i + 3 <= palabra.length(); i++) {
+            tris.add(palabra.substring(i, i + 3));
+        }
+        return tris;
+    }
+
+    // Números de elemento ordenados de menor a mayor
+    private static final class Numeros {
+        private int[] valores = new int[2];
+        private int cantidad;
+
+        void agregar(int n) {
+            int pos = cantidad > 0 && valores[cantidad - 1] < n
+                    ? cantidad
+                    : -Arrays.binarySearch(valores, 0, cantidad, n) - 1;
+            if (pos < 0) return;
+            if (cantidad == valores.length) valores = Arrays.copyOf(valores, cantidad * 2);
+            System.arraycopy(valores, pos, valores, pos + 1, cantidad - pos);
+            valores[pos] = n;
+            cantidad++;
+        }
+
+        void quitar(int n) {
+            int pos = Arrays.binarySearch(valores, 0, cantidad, n);
+            if (pos < 0) return;
+            System.arraycopy(valores, pos + 1, valores, pos, cantidad - pos - 1);
+            cantidad--;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lista de observadores que usa cada service para avisar sus cambios.
+ *
+ * <p>Además lleva un contador de versión que sube con cada cambio, así la
+ * persistencia puede saber si hace falta volver a guardar ese archivo.</p>
+ */
+public class NotificadorCambios {
+
+    // Se puede notificar desde varios hilos (ver TurnoService)
+    private final List<ObservadorCambios> observadores = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void agregar(ObservadorCambios observador) {
+        observadores.add(observador);
+    }
+
+    public void quitar(ObservadorCambios observador) {
+        observadores.remove(observador);
+    }
+
+    public void notificar(ObservadorCambios.Operacion operacion, Object entidad) {
+        version.incrementAndGet();
+        for (ObservadorCambios o : observadores) {
+            o.notificar(operacion, entidad);
+        }
+    }
+}
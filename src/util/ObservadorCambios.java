@@ -0,0 +1,16 @@
+package util;
+
+/**
+ * Interfaz para quien quiera enterarse de los cambios que hacen los services
+ * (altas, modificaciones y bajas de clientes, servicios, empleados y turnos).
+ */
+public interface ObservadorCambios {
+
+    enum Operacion {
+        ALTA,
+        MODIFICACION,
+        BAJA
+    }
+
+    void notificar(Operacion operacion, Object entidad);
+}